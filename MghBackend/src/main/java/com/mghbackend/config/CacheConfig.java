@@ -0,0 +1,48 @@
+package com.mghbackend.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+
+/**
+ * Cache de second niveau Hibernate (JCache / Caffeine) : chambres, produits, hôtels, rôles
+ * et leurs permissions, plus le cache des requêtes marquées cacheables.
+ *
+ * Régions, tailles et expiration : application.conf (format Caffeine/Typesafe).
+ * Les écritures faites par Hibernate mettent les régions à jour (READ_WRITE) et les requêtes
+ * JPQL de masse les invalident ; les requêtes natives déclarent leurs tables (HINT_NATIVE_SPACES)
+ * pour ne pas vider tout le cache. Hits, misses, puts et évictions par région : métriques cache.*.
+ */
+@Configuration
+public class CacheConfig {
+
+	/** Régions déclarées dans application.conf (entités, collection, requêtes, horodatages). */
+	private static final List<String> REGIONS = List.of(
+			"hotels", "chambres", "produits", "roles", "roles.permissions",
+			"default-query-results-region", "default-update-timestamps-region");
+
+	@Bean(destroyMethod = "close")
+	public CacheManager jcacheManager() {
+		return Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+	}
+
+	/** Hibernate utilise ce gestionnaire plutôt que d'en créer un second, invisible des métriques. */
+	@Bean
+	public HibernatePropertiesCustomizer cacheSecondNiveau(CacheManager jcacheManager) {
+		return proprietes -> proprietes.put(ConfigSettings.CACHE_MANAGER, jcacheManager);
+	}
+
+	@Bean
+	public MeterBinder metriquesCacheSecondNiveau(CacheManager jcacheManager) {
+		// getCache crée la région depuis application.conf si Hibernate ne l'a pas encore demandée
+		return registry -> REGIONS.forEach(nom -> JCacheMetrics.monitor(registry, jcacheManager.getCache(nom)));
+	}
+}
@@ -0,0 +1,46 @@
+package com.mghbackend.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
+
+/**
+ * Pools de connexions.
+ *
+ * dataSource : pool principal, déclaré comme le fait Spring Boot (spring.datasource.* et
+ * spring.datasource.hikari.*) ; un second pool déclaré désactive sinon sa configuration automatique.
+ * referencesDataSource : petit pool réservé aux blocs de références de transaction (voir
+ * ReferenceTransactionGenerator). Il reprend les réglages du pool principal (délais, durée de
+ * vie...) ; seuls son nom et sa taille changent.
+ */
+@Configuration
+public class DataSourceConfig {
+
+	@Bean
+	@Primary
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource dataSource(DataSourceProperties proprietes) {
+		HikariDataSource dataSource = proprietes.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		if (StringUtils.hasText(proprietes.getName())) {
+			dataSource.setPoolName(proprietes.getName());
+		}
+		return dataSource;
+	}
+
+	@Bean(destroyMethod = "close")
+	public HikariDataSource referencesDataSource(HikariDataSource dataSource,
+												 @Value("${numerotation.references.pool-taille:2}") int taillePool) {
+		HikariConfig config = new HikariConfig();
+		dataSource.copyStateTo(config);
+		config.setPoolName("mgh-references");
+		config.setMaximumPoolSize(taillePool);
+		config.setMinimumIdle(Math.min(1, taillePool));
+		return new HikariDataSource(config);
+	}
+}
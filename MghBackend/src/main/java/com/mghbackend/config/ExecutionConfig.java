@@ -0,0 +1,86 @@
+package com.mghbackend.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Mode d'exécution des requêtes.
+ *
+ * Avec spring.threads.virtual.enabled (MGH_VIRTUAL_THREADS), Spring Boot exécute les requêtes
+ * Tomcat, les tâches @Async et les tâches planifiées sur des threads virtuels.
+ * Le pool Hikari reste borné : au-delà de maximum-pool-size, les requêtes attendent une connexion
+ * (connection-timeout) au lieu d'attendre un thread Tomcat.
+ *
+ * Diagnostic d'épinglage (diagnostic.pinning.enabled) : un thread virtuel qui se bloque dans un
+ * bloc synchronized (code applicatif, pilote JDBC...) occupe son thread porteur. Les événements
+ * JFR jdk.VirtualThreadPinned plus longs que le seuil sont journalisés avec leur pile d'appels.
+ */
+@Configuration
+@EnableAsync
+@Slf4j
+public class ExecutionConfig {
+
+	@Value("${spring.threads.virtual.enabled:false}")
+	private boolean threadsVirtuels;
+
+	@Value("${diagnostic.pinning.enabled:false}")
+	private boolean diagnosticPinning;
+
+	@Value("${diagnostic.pinning.seuil-ms:20}")
+	private long seuilPinningMs;
+
+	private RecordingStream pinning;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void demarrer() {
+		if (!threadsVirtuels) {
+			log.info("🧵 Exécution des requêtes sur threads plateforme");
+			return;
+		}
+		log.info("🧵 Exécution des requêtes et tâches @Async sur threads virtuels");
+		if (diagnosticPinning) {
+			pinning = new RecordingStream();
+			pinning.enable("jdk.VirtualThreadPinned")
+					.withThreshold(Duration.ofMillis(seuilPinningMs))
+					.withStackTrace();
+			pinning.onEvent("jdk.VirtualThreadPinned", event -> log.warn(
+					"📌 Thread virtuel épinglé pendant {} ms\n{}",
+					event.getDuration().toMillis(), pile(event.getStackTrace())));
+			pinning.startAsync();
+			log.info("📌 Diagnostic d'épinglage actif (seuil {} ms)", seuilPinningMs);
+		}
+	}
+
+	@PreDestroy
+	void arreter() {
+		if (pinning != null) {
+			pinning.close();
+		}
+	}
+
+	private static String pile(RecordedStackTrace stackTrace) {
+		if (stackTrace == null) {
+			return "\t(pile indisponible)";
+		}
+		return stackTrace.getFrames().stream()
+				.limit(30)
+				.map(ExecutionConfig::ligne)
+				.collect(Collectors.joining("\n"));
+	}
+
+	private static String ligne(RecordedFrame frame) {
+		return "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+				+ "(ligne " + frame.getLineNumber() + ")";
+	}
+}
@@ -0,0 +1,69 @@
+package com.mghbackend.config;
+
+import com.mghbackend.entity.BaseEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+
+/**
+ * Migration des identifiants AUTO_INCREMENT vers la séquence mgh_id_seq.
+ *
+ * La séquence (émulée par une table sur MySQL) est créée par Hibernate avec la valeur 1 :
+ * elle est relevée au-dessus du plus grand id des tables qui l'utilisent, avant toute insertion
+ * (le bean dépend de l'EntityManagerFactory, donc du schéma à jour, et s'exécute avant les runners).
+ * Idempotent : la valeur n'est jamais abaissée. Les colonnes AUTO_INCREMENT existantes restent
+ * compatibles, MySQL acceptant un id fourni.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MigrationIdentifiants {
+
+	private final EntityManagerFactory entityManagerFactory;
+	private final JdbcTemplate jdbcTemplate;
+
+	@PostConstruct
+	void amorcerSequence() {
+		long idMax = 0;
+		for (EntityType<?> entite : entityManagerFactory.getMetamodel().getEntities()) {
+			if (utiliseSequence(entite)) {
+				String table = entite.getJavaType().getAnnotation(Table.class).name();
+				Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+				idMax = Math.max(idMax, max != null ? max : 0);
+			}
+		}
+
+		// Un bloc complet au-dessus du max : aucun id de l'optimiseur pooled ne peut le recouvrir
+		long valeur = idMax + BaseEntity.TAILLE_BLOC_ID + 1;
+		Integer lignes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + BaseEntity.SEQUENCE_ID, Integer.class);
+		int modifiees;
+		if (lignes == null || lignes == 0) {
+			modifiees = jdbcTemplate.update("INSERT INTO " + BaseEntity.SEQUENCE_ID + " (next_val) VALUES (?)", valeur);
+		} else {
+			modifiees = jdbcTemplate.update("UPDATE " + BaseEntity.SEQUENCE_ID + " SET next_val = ? WHERE next_val < ?",
+					valeur, valeur);
+		}
+		if (modifiees > 0) {
+			log.info("🔢 Séquence {} amorcée à {} (plus grand id existant : {})", BaseEntity.SEQUENCE_ID, valeur, idMax);
+		}
+	}
+
+	private static boolean utiliseSequence(EntityType<?> entite) {
+		Member membre = entite.getId(entite.getIdType().getJavaType()).getJavaMember();
+		if (!(membre instanceof Field champ)) {
+			return false;
+		}
+		GeneratedValue generation = champ.getAnnotation(GeneratedValue.class);
+		return generation != null && generation.strategy() == GenerationType.SEQUENCE;
+	}
+}
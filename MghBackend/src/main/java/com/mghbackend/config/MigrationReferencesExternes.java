@@ -0,0 +1,55 @@
+package com.mghbackend.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contrainte d'unicité (hotel_id, reference_externe) des réservations : idempotence des imports.
+ *
+ * ddl-auto ne fait que journaliser l'échec de sa création, par exemple quand plusieurs
+ * réservations d'un hôtel portent une référence vide. Les références vides sont donc ramenées
+ * à NULL (ignoré par la contrainte, comme le fait ReservationService), puis la contrainte est
+ * créée si elle manque. Des références réellement en double empêchent le démarrage : elles
+ * doivent être dédoublonnées à la main.
+ * Idempotent ; le bean dépend de l'EntityManagerFactory, donc du schéma à jour.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class MigrationReferencesExternes {
+
+	private static final String CONTRAINTE = "uk_reservation_hotel_ref_externe";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@PostConstruct
+	void imposerUnicite() {
+		int videes = jdbcTemplate.update(
+				"UPDATE reservations SET reference_externe = NULL WHERE TRIM(reference_externe) = ''");
+		if (videes > 0) {
+			log.info("🔗 {} référence(s) externe(s) vide(s) ramenée(s) à NULL", videes);
+		}
+
+		Integer existe = jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM information_schema.table_constraints " +
+						"WHERE table_schema = DATABASE() AND table_name = 'reservations' AND constraint_name = ?",
+				Integer.class, CONTRAINTE);
+		if (existe != null && existe > 0) {
+			return;
+		}
+		try {
+			jdbcTemplate.execute("ALTER TABLE reservations ADD CONSTRAINT " + CONTRAINTE +
+					" UNIQUE (hotel_id, reference_externe)");
+		} catch (DataIntegrityViolationException e) {
+			throw new IllegalStateException("Références externes en double dans la table reservations : " +
+					"dédoublonner (hotel_id, reference_externe) avant de redémarrer", e);
+		}
+		log.info("🔗 Contrainte {} créée sur reservations (hotel_id, reference_externe)", CONTRAINTE);
+	}
+}
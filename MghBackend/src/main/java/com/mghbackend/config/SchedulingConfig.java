@@ -0,0 +1,12 @@
+package com.mghbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches planifiées (@Scheduled) : réconciliation des index en mémoire, purges, etc.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
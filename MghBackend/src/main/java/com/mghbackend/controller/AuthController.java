@@ -2,9 +2,11 @@ package com.mghbackend.controller;
 
 import com.mghbackend.dto.reponse.ApiResponse;
 import com.mghbackend.dto.request.LoginRequest;
+import com.mghbackend.dto.request.RefreshTokenRequest;
 import com.mghbackend.dto.reponse.LoginResponse;
 import com.mghbackend.service.AuthService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,4 +30,30 @@ public class AuthController {
 					.body(ApiResponse.error(e.getMessage()));
 		}
 	}
+
+	@PostMapping("/refresh")
+	public ResponseEntity<ApiResponse<LoginResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+		try {
+			LoginResponse response = authService.refresh(request.getRefreshToken());
+			return ResponseEntity.ok(ApiResponse.success("Jetons renouvelés", response));
+		} catch (RuntimeException e) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+					.body(ApiResponse.error(e.getMessage()));
+		}
+	}
+
+	@PostMapping("/logout")
+	public ResponseEntity<ApiResponse<Void>> logout(
+			@RequestHeader(value = "Authorization", required = false) String authorization,
+			@RequestBody(required = false) RefreshTokenRequest request) {
+		try {
+			String accessToken = authorization != null && authorization.startsWith("Bearer ")
+					? authorization.substring(7) : null;
+			authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+			return ResponseEntity.ok(ApiResponse.success("Déconnexion réussie", null));
+		} catch (RuntimeException e) {
+			return ResponseEntity.badRequest()
+					.body(ApiResponse.error(e.getMessage()));
+		}
+	}
 }
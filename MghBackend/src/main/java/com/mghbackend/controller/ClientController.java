@@ -1,5 +1,6 @@
 package com.mghbackend.controller;
 
+import com.mghbackend.dto.liste.ClientListView;
 import com.mghbackend.dto.reponse.ApiResponse;
 import com.mghbackend.dto.ClientDto;
 import com.mghbackend.security.CustomUserPrincipal;
@@ -52,8 +53,14 @@ public class ClientController {
     @GetMapping
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_RESERVATIONS')")
     public ResponseEntity<ApiResponse<List<ClientDto>>> getClients(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
         try {
+            if (curseur != null || taille != null) {
+                return ResponseEntity.ok(ApiResponse.page(
+                        clientService.getClientsByHotel(principal.getHotelId(), curseur, taille)));
+            }
             List<ClientDto> clients = clientService.getClientsByHotel(principal.getHotelId());
             return ResponseEntity.ok(ApiResponse.success(clients));
         } catch (RuntimeException e) {
@@ -62,6 +69,21 @@ public class ClientController {
         }
     }
 
+    /** Écran liste : colonnes affichées uniquement, paginées par curseur. */
+    @GetMapping("/liste")
+    @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_RESERVATIONS')")
+    public ResponseEntity<ApiResponse<List<ClientListView>>> getClientsListe(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+        try {
+            return ResponseEntity.ok(ApiResponse.page(
+                    clientService.getClientsListe(principal.getHotelId(), curseur, taille)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/email/{email}")
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_RESERVATIONS')")
     public ResponseEntity<ApiResponse<ClientDto>> getClientByEmail(
@@ -94,9 +116,10 @@ public class ClientController {
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_RESERVATIONS')")
     public ResponseEntity<ApiResponse<List<ClientDto>>> searchClients(
             @RequestParam String keyword,
+            @RequestParam(required = false) Integer taille,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
         try {
-            List<ClientDto> clients = clientService.searchClients(principal.getHotelId(), keyword);
+            List<ClientDto> clients = clientService.searchClients(principal.getHotelId(), keyword, taille);
             return ResponseEntity.ok(ApiResponse.success(clients));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
@@ -1,10 +1,12 @@
 package com.mghbackend.controller;
 
 import com.mghbackend.dto.CommandeRestaurantDto;
+import com.mghbackend.dto.liste.CommandeRestaurantListView;
 import com.mghbackend.dto.reponse.ApiResponse;
 import com.mghbackend.enums.StatutCommandeRestaurant;
 import com.mghbackend.security.CustomUserPrincipal;
 import com.mghbackend.service.CommandeRestaurantService;
+import com.mghbackend.service.ReessaiConcurrence;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -23,6 +25,7 @@ import java.util.List;
 public class CommandeRestaurantController {
 
     private final CommandeRestaurantService commandeService;
+    private final ReessaiConcurrence reessaiConcurrence;
 
     @PostMapping
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_CREER_COMMANDE')")
@@ -31,8 +34,8 @@ public class CommandeRestaurantController {
             @AuthenticationPrincipal CustomUserPrincipal principal) {
         try {
             Long userId = principal.getAccountType().equals("USER") ? principal.getId() : null;
-            CommandeRestaurantDto commande = commandeService.createCommande(
-                    principal.getHotelId(), dto, userId);
+            CommandeRestaurantDto commande = reessaiConcurrence.executer("commande.creation",
+                    () -> commandeService.createCommande(principal.getHotelId(), dto, userId));
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success("Commande créée avec succès", commande));
         } catch (RuntimeException e) {
@@ -44,8 +47,14 @@ public class CommandeRestaurantController {
     @GetMapping
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_COMMANDES')")
     public ResponseEntity<ApiResponse<List<CommandeRestaurantDto>>> getCommandes(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
         try {
+            if (curseur != null || taille != null) {
+                return ResponseEntity.ok(ApiResponse.page(
+                        commandeService.getCommandesByHotel(principal.getHotelId(), curseur, taille)));
+            }
             List<CommandeRestaurantDto> commandes = commandeService.getCommandesByHotel(
                     principal.getHotelId());
             return ResponseEntity.ok(ApiResponse.success(commandes));
@@ -55,6 +64,21 @@ public class CommandeRestaurantController {
         }
     }
 
+    /** Écran liste : colonnes affichées uniquement, paginées par curseur. */
+    @GetMapping("/liste")
+    @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_COMMANDES')")
+    public ResponseEntity<ApiResponse<List<CommandeRestaurantListView>>> getCommandesListe(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+        try {
+            return ResponseEntity.ok(ApiResponse.page(
+                    commandeService.getCommandesListe(principal.getHotelId(), curseur, taille)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     // ✅ CORRIGÉ : @PathVariable Long (pas long sans annotation)
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('HOTEL') or hasAnyAuthority('PERMISSION_VOIR_COMMANDES')")
@@ -75,7 +99,8 @@ public class CommandeRestaurantController {
             @PathVariable Long id,
             @RequestParam StatutCommandeRestaurant statut) {
         try {
-            CommandeRestaurantDto commande = commandeService.updateStatut(id, statut);
+            CommandeRestaurantDto commande = reessaiConcurrence.executer("commande.statut",
+                    () -> commandeService.updateStatut(id, statut));
             return ResponseEntity.ok(ApiResponse.success("Statut mis à jour", commande));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
@@ -89,7 +114,8 @@ public class CommandeRestaurantController {
             @PathVariable Long id,
             @RequestParam BigDecimal montant) {
         try {
-            CommandeRestaurantDto commande = commandeService.addPaiement(id, montant);
+            CommandeRestaurantDto commande = reessaiConcurrence.executer("commande.paiement",
+                    () -> commandeService.addPaiement(id, montant));
             return ResponseEntity.ok(ApiResponse.success("Paiement enregistré", commande));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
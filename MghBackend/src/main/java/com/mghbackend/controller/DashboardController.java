@@ -0,0 +1,36 @@
+package com.mghbackend.controller;
+
+import com.mghbackend.dto.DashboardDto;
+import com.mghbackend.dto.reponse.ApiResponse;
+import com.mghbackend.security.CustomUserPrincipal;
+import com.mghbackend.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_RESERVATIONS')")
+    public ResponseEntity<ApiResponse<DashboardDto>> getDashboard(
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+        try {
+            // Les statistiques financières ne sont chargées que si l'utilisateur y a accès
+            boolean avecFinance = principal.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_HOTEL"))
+                    || principal.getAuthorities().contains(new SimpleGrantedAuthority("PERMISSION_VOIR_COMPTABILITE"));
+            return ResponseEntity.ok(ApiResponse.success(
+                    dashboardService.getDashboard(principal.getHotelId(), avecFinance)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
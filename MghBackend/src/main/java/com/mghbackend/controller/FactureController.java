@@ -1,9 +1,11 @@
 package com.mghbackend.controller;
 
 import com.mghbackend.dto.FactureDto;
+import com.mghbackend.dto.liste.FactureListView;
 import com.mghbackend.dto.reponse.ApiResponse;
 import com.mghbackend.security.CustomUserPrincipal;
 import com.mghbackend.service.FactureService;
+import com.mghbackend.service.ReessaiConcurrence;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -22,6 +24,7 @@ import java.util.List;
 public class FactureController {
 
     private final FactureService factureService;
+    private final ReessaiConcurrence reessaiConcurrence;
 
     @PostMapping
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_MODIFIER_COMPTABILITE')")
@@ -41,8 +44,14 @@ public class FactureController {
     @GetMapping
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_COMPTABILITE')")
     public ResponseEntity<ApiResponse<List<FactureDto>>> getFactures(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
         try {
+            if (curseur != null || taille != null) {
+                return ResponseEntity.ok(ApiResponse.page(
+                        factureService.getFacturesByHotel(principal.getHotelId(), curseur, taille)));
+            }
             List<FactureDto> factures = factureService.getFacturesByHotel(principal.getHotelId());
             return ResponseEntity.ok(ApiResponse.success(factures));
         } catch (RuntimeException e) {
@@ -51,6 +60,21 @@ public class FactureController {
         }
     }
 
+    /** Écran liste : colonnes affichées uniquement, paginées par curseur. */
+    @GetMapping("/liste")
+    @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_COMPTABILITE')")
+    public ResponseEntity<ApiResponse<List<FactureListView>>> getFacturesListe(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+        try {
+            return ResponseEntity.ok(ApiResponse.page(
+                    factureService.getFacturesListe(principal.getHotelId(), curseur, taille)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @PostMapping("/{id}/emettre")
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_MODIFIER_COMPTABILITE')")
     public ResponseEntity<ApiResponse<FactureDto>> emettre(@PathVariable Long id) {
@@ -69,7 +93,8 @@ public class FactureController {
             @PathVariable Long id,
             @RequestParam BigDecimal montant) {
         try {
-            FactureDto facture = factureService.addPaiement(id, montant);
+            FactureDto facture = reessaiConcurrence.executer("facture.paiement",
+                    () -> factureService.addPaiement(id, montant));
             return ResponseEntity.ok(ApiResponse.success("Paiement enregistré", facture));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
@@ -23,12 +23,19 @@ public class MouvementStockController {
     /**
      * Historique complet de l'hôtel — triés du plus récent au plus ancien.
      * GET /api/mouvements-stock
+     * GET /api/mouvements-stock?taille=50[&curseur=...] — page par page (nextCursor dans la réponse)
      */
     @GetMapping
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_STOCK')")
     public ResponseEntity<ApiResponse<List<MouvementStockDto>>> getHistorique(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
         try {
+            if (curseur != null || taille != null) {
+                return ResponseEntity.ok(ApiResponse.page(
+                        produitService.getHistoriqueByHotel(principal.getHotelId(), curseur, taille)));
+            }
             List<MouvementStockDto> mouvements =
                     produitService.getHistoriqueByHotel(principal.getHotelId());
             return ResponseEntity.ok(ApiResponse.success(mouvements));
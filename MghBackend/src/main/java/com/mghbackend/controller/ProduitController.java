@@ -5,14 +5,17 @@ import com.mghbackend.dto.reponse.ApiResponse;
 import com.mghbackend.enums.TypeMouvement;
 import com.mghbackend.enums.TypeProduit;
 import com.mghbackend.security.CustomUserPrincipal;
+import com.mghbackend.service.MenuCache;
 import com.mghbackend.service.ProduitService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -91,17 +94,14 @@ public class ProduitController {
     /**
      * Menu complet (tous types disponibles).
      * Utilisé par l'interface restaurant pour afficher tous les onglets.
+     * Requête conditionnelle : If-None-Match avec l'ETag reçu → 304 tant que le menu n'a pas changé.
      */
     @GetMapping("/menu")
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_COMMANDES')")
     public ResponseEntity<ApiResponse<List<ProduitDto>>> getMenuComplet(
+            WebRequest request,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
-        try {
-            List<ProduitDto> produits = produitService.getMenuComplet(principal.getHotelId());
-            return ResponseEntity.ok(ApiResponse.success(produits));
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
-        }
+        return menu(request, principal.getHotelId(), null);
     }
 
     /**
@@ -111,10 +111,23 @@ public class ProduitController {
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_COMMANDES')")
     public ResponseEntity<ApiResponse<List<ProduitDto>>> getMenuParType(
             @PathVariable TypeProduit type,
+            WebRequest request,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
+        return menu(request, principal.getHotelId(), type);
+    }
+
+    private ResponseEntity<ApiResponse<List<ProduitDto>>> menu(WebRequest request, Long hotelId, TypeProduit type) {
         try {
-            List<ProduitDto> produits = produitService.getMenuParType(principal.getHotelId(), type);
-            return ResponseEntity.ok(ApiResponse.success(produits));
+            // Version connue sans accès à la base : une tablette à jour reçoit 304 immédiatement
+            if (request.checkNotModified(MenuCache.etag(hotelId, produitService.getVersionMenu(hotelId), type))) {
+                return null;
+            }
+            MenuCache.Instantane menu = produitService.getMenu(hotelId);
+            List<ProduitDto> produits = type != null ? menu.parType(type) : menu.produits();
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(MenuCache.etag(hotelId, menu.version(), type))
+                    .body(ApiResponse.success(produits));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
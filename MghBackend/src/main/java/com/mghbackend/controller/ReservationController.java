@@ -1,11 +1,15 @@
 package com.mghbackend.controller;
 
+import com.mghbackend.dto.liste.ReservationListView;
 import com.mghbackend.dto.reponse.ApiResponse;
+import com.mghbackend.dto.reponse.ResultatImportReservation;
 import com.mghbackend.dto.request.CreateReservationRequest;
 import com.mghbackend.dto.request.UpdateReservationRequest;
 import com.mghbackend.dto.ReservationDto;
 import com.mghbackend.enums.StatutReservation;
 import com.mghbackend.security.CustomUserPrincipal;
+import com.mghbackend.service.ImportReservationService;
+import com.mghbackend.service.ReessaiConcurrence;
 import com.mghbackend.service.ReservationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +29,8 @@ import java.util.List;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final ImportReservationService importReservationService;
+    private final ReessaiConcurrence reessaiConcurrence;
 
     // ─── Création ─────────────────────────────────────────────────────────────
 
@@ -44,6 +50,25 @@ public class ReservationController {
         }
     }
 
+    /**
+     * Import groupé (channel managers) : jusqu'à 500 réservations, idempotent sur referenceExterne.
+     * Chaque élément reçoit son résultat (CREEE, EXISTANTE ou REJETEE) à la même position.
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_CREER_RESERVATION')")
+    public ResponseEntity<ApiResponse<List<ResultatImportReservation>>> importerReservations(
+            @RequestBody List<CreateReservationRequest> requests,
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+        try {
+            List<ResultatImportReservation> resultats = importReservationService.importer(
+                    principal.getHotelId(), requests,
+                    principal.getAccountType().equals("USER") ? principal.getId() : null);
+            return ResponseEntity.ok(ApiResponse.success("Import terminé", resultats));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     // ─── Lecture ──────────────────────────────────────────────────────────────
 
     @GetMapping("/{id}")
@@ -69,8 +94,14 @@ public class ReservationController {
     @GetMapping
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_RESERVATIONS')")
     public ResponseEntity<ApiResponse<List<ReservationDto>>> getReservations(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
         try {
+            if (curseur != null || taille != null) {
+                return ResponseEntity.ok(ApiResponse.page(
+                        reservationService.getReservationsByHotel(principal.getHotelId(), curseur, taille)));
+            }
             return ResponseEntity.ok(ApiResponse.success(
                     reservationService.getReservationsByHotel(principal.getHotelId())));
         } catch (RuntimeException e) {
@@ -78,6 +109,21 @@ public class ReservationController {
         }
     }
 
+    /** Écran liste : colonnes affichées uniquement, paginées par curseur. */
+    @GetMapping("/liste")
+    @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_RESERVATIONS')")
+    public ResponseEntity<ApiResponse<List<ReservationListView>>> getReservationsListe(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+        try {
+            return ResponseEntity.ok(ApiResponse.page(
+                    reservationService.getReservationsListe(principal.getHotelId(), curseur, taille)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/statut/{statut}")
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_RESERVATIONS')")
     public ResponseEntity<ApiResponse<List<ReservationDto>>> getReservationsByStatut(
@@ -155,10 +201,11 @@ public class ReservationController {
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_RESERVATIONS')")
     public ResponseEntity<ApiResponse<List<ReservationDto>>> searchReservations(
             @RequestParam String keyword,
+            @RequestParam(required = false) Integer taille,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
         try {
             return ResponseEntity.ok(ApiResponse.success(
-                    reservationService.searchReservations(principal.getHotelId(), keyword)));
+                    reservationService.searchReservations(principal.getHotelId(), keyword, taille)));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
@@ -233,7 +280,8 @@ public class ReservationController {
             @RequestParam BigDecimal montant,
             @RequestParam String modePaiement) {
         try {
-            ReservationDto reservation = reservationService.addPaiement(id, montant, modePaiement);
+            ReservationDto reservation = reessaiConcurrence.executer("reservation.paiement",
+                    () -> reservationService.addPaiement(id, montant, modePaiement));
             return ResponseEntity.ok(ApiResponse.success("Paiement enregistré avec succès", reservation));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
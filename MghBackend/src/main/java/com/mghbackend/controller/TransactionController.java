@@ -3,18 +3,27 @@ package com.mghbackend.controller;
 import com.mghbackend.dto.StatistiquesFinanceDto;
 import com.mghbackend.dto.TransactionDto;
 import com.mghbackend.dto.reponse.ApiResponse;
+import com.mghbackend.dto.request.RechercheTransactionRequest;
+import com.mghbackend.enums.ModePaiementTransaction;
+import com.mghbackend.enums.StatutTransaction;
 import com.mghbackend.enums.TypeTransaction;
 import com.mghbackend.security.CustomUserPrincipal;
 import com.mghbackend.service.TransactionService;
+import com.mghbackend.service.ReessaiConcurrence;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -23,6 +32,7 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final ReessaiConcurrence reessaiConcurrence;
 
     // ─── CREATE ────────────────────────────────────────────────────────────────
 
@@ -47,8 +57,14 @@ public class TransactionController {
     @GetMapping
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_COMPTABILITE')")
     public ResponseEntity<ApiResponse<List<TransactionDto>>> getTransactions(
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
         try {
+            if (curseur != null || taille != null) {
+                return ResponseEntity.ok(ApiResponse.page(
+                        transactionService.getTransactionsByHotel(principal.getHotelId(), curseur, taille)));
+            }
             List<TransactionDto> transactions = transactionService
                     .getTransactionsByHotel(principal.getHotelId());
             return ResponseEntity.ok(ApiResponse.success(transactions));
@@ -95,15 +111,42 @@ public class TransactionController {
         }
     }
 
+    /**
+     * Recherche filtrée : tous les critères sont facultatifs et combinés (mot-clé sur référence,
+     * description, catégorie et notes ; période et montants inclusifs).
+     * Paginée par curseur si curseur ou taille est fourni, liste complète sinon.
+     */
     @GetMapping("/search")
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_COMPTABILITE')")
     public ResponseEntity<ApiResponse<List<TransactionDto>>> searchTransactions(
-            @RequestParam String keyword,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) TypeTransaction type,
+            @RequestParam(required = false) StatutTransaction statut,
+            @RequestParam(required = false) String categorie,
+            @RequestParam(required = false) ModePaiementTransaction modePaiement,
+            @RequestParam(required = false) String dateDebut,
+            @RequestParam(required = false) String dateFin,
+            @RequestParam(required = false) BigDecimal montantMin,
+            @RequestParam(required = false) BigDecimal montantMax,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) Integer taille,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
         try {
-            List<TransactionDto> transactions = transactionService
-                    .searchTransactions(principal.getHotelId(), keyword);
-            return ResponseEntity.ok(ApiResponse.success(transactions));
+            RechercheTransactionRequest filtre = new RechercheTransactionRequest(keyword);
+            filtre.setType(type);
+            filtre.setStatut(statut);
+            filtre.setCategorie(categorie);
+            filtre.setModePaiement(modePaiement);
+            filtre.setDateDebut(parseDate(dateDebut));
+            filtre.setDateFin(parseDate(dateFin));
+            filtre.setMontantMin(montantMin);
+            filtre.setMontantMax(montantMax);
+            if (curseur != null || taille != null) {
+                return ResponseEntity.ok(ApiResponse.page(transactionService
+                        .rechercherTransactions(principal.getHotelId(), filtre, curseur, taille)));
+            }
+            return ResponseEntity.ok(ApiResponse.success(transactionService
+                    .rechercherTransactions(principal.getHotelId(), filtre)));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
@@ -146,7 +189,8 @@ public class TransactionController {
             @PathVariable Long id,
             @RequestParam(required = false) String motif) {
         try {
-            TransactionDto transaction = transactionService.annulerTransaction(id, motif);
+            TransactionDto transaction = reessaiConcurrence.executer("transaction.annulation",
+                    () -> transactionService.annulerTransaction(id, motif));
             return ResponseEntity.ok(ApiResponse.success("Transaction annulée", transaction));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
@@ -181,31 +225,65 @@ public class TransactionController {
         }
     }
 
+    @PostMapping("/statistiques/reconstruire")
+    @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_MODIFIER_COMPTABILITE')")
+    public ResponseEntity<ApiResponse<Integer>> reconstruireAgregats(
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+        try {
+            int lignes = transactionService.reconstruireAgregats(principal.getHotelId());
+            return ResponseEntity.ok(ApiResponse.success("Agrégats financiers reconstruits", lignes));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     // ─── EXPORT ────────────────────────────────────────────────────────────────
 
+    /**
+     * Export CSV en flux : la réponse commence immédiatement et la mémoire reste constante.
+     * Dates au format yyyy-MM-dd, incluses. gzip=true renvoie un fichier .csv.gz.
+     */
     @GetMapping("/export")
     @PreAuthorize("hasRole('HOTEL') or hasAuthority('PERMISSION_VOIR_COMPTABILITE')")
-    public ResponseEntity<byte[]> exportTransactions(
-            @RequestParam String format,
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false, defaultValue = "CSV") String format,
             @RequestParam(required = false) String dateDebut,
             @RequestParam(required = false) String dateFin,
+            @RequestParam(required = false, defaultValue = "false") boolean gzip,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
         try {
-            byte[] data = transactionService.exportTransactions(
-                    principal.getHotelId(), format, dateDebut, dateFin);
+            LocalDate debut = parseDate(dateDebut);
+            LocalDate fin   = parseDate(dateFin);
+            Long hotelId = principal.getHotelId();
 
-            String contentType = "EXCEL".equalsIgnoreCase(format)
-                    ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"
-                    : "application/pdf";
-            String extension = "EXCEL".equalsIgnoreCase(format) ? ".xlsx" : ".pdf";
+            StreamingResponseBody body = out -> {
+                if (gzip) {
+                    GZIPOutputStream gz = new GZIPOutputStream(out, 16 * 1024);
+                    transactionService.exportTransactions(hotelId, debut, fin, gz);
+                    gz.finish();
+                } else {
+                    transactionService.exportTransactions(hotelId, debut, fin, out);
+                }
+            };
 
             return ResponseEntity.ok()
-                    .header("Content-Type", contentType)
+                    .header("Content-Type", gzip ? "application/gzip" : "text/csv; charset=UTF-8")
                     .header("Content-Disposition",
-                            "attachment; filename=\"transactions" + extension + "\"")
-                    .body(data);
+                            "attachment; filename=\"transactions.csv" + (gzip ? ".gz" : "") + "\"")
+                    .body(body);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    private LocalDate parseDate(String valeur) {
+        if (valeur == null || valeur.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(valeur.length() > 10 ? valeur.substring(0, 10) : valeur);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Date invalide : " + valeur);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.mghbackend.dto;
+
+import com.mghbackend.enums.StatutChambre;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tableau de bord de la réception : toutes les données de l'écran en un seul appel.
+ */
+@Data
+public class DashboardDto {
+
+    private List<ReservationDto> arriveesDuJour;
+    private List<ReservationDto> departsDuJour;
+    private List<ReservationDto> reservationsEnCours;
+    private List<ReservationDto> reservationsAVenir;
+
+    private Map<StatutChambre, Long> chambresParStatut;
+
+    // Null si l'utilisateur n'a pas accès à la comptabilité
+    private StatistiquesFinanceDto statistiquesFinance;
+}
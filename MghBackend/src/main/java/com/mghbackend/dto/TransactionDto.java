@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 public class TransactionDto {
     private Long id;
 
-    /** Référence auto-générée (ex: TRX-2025-00001) */
+    /** Référence auto-générée (ex: TRX-2025-12-00001 : année, hôtel, numéro) */
     private String reference;
 
     private TypeTransaction type;
@@ -0,0 +1,24 @@
+package com.mghbackend.dto.liste;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de la liste des clients, construite directement par la requête
+ * (ClientRepository.findVues*) : l'ordre des champs est celui du constructeur JPQL.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientListView {
+    private Long id;
+    private String nom;
+    private String prenom;
+    private String email;
+    private String telephone;
+    private String ville;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,30 @@
+package com.mghbackend.dto.liste;
+
+import com.mghbackend.enums.StatutCommandeRestaurant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de la liste des commandes restaurant, construite directement par la requête
+ * (CommandeRestaurantRepository.findVues*) : l'ordre des champs est celui du constructeur JPQL.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommandeRestaurantListView {
+    private Long id;
+    private String numeroCommande;
+    private String numeroTable;
+    private String clientNom;
+    private String clientPrenom;
+    private String nomClientExterne;
+    private StatutCommandeRestaurant statut;
+    private BigDecimal montantTotal;
+    private BigDecimal montantPaye;
+    private LocalDateTime dateCommande;
+    private LocalDateTime createdAt;
+}
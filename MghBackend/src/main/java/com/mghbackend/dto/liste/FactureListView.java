@@ -0,0 +1,31 @@
+package com.mghbackend.dto.liste;
+
+import com.mghbackend.enums.StatutFacture;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de la liste des factures, construite directement par la requête
+ * (FactureRepository.findVues*) : l'ordre des champs est celui du constructeur JPQL.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FactureListView {
+    private Long id;
+    private String numeroFacture;
+    private LocalDate dateEmission;
+    private LocalDate dateEcheance;
+    private StatutFacture statut;
+    private String clientNom;
+    private String clientPrenom;
+    private BigDecimal montantTTC;
+    private BigDecimal montantPaye;
+    private BigDecimal montantRestant;
+    private LocalDateTime createdAt;
+}
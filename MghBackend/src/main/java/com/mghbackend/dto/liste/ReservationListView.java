@@ -0,0 +1,34 @@
+package com.mghbackend.dto.liste;
+
+import com.mghbackend.enums.StatutPaiement;
+import com.mghbackend.enums.StatutReservation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne de la liste des réservations, construite directement par la requête
+ * (ReservationRepository.findVues*) : l'ordre des champs est celui du constructeur JPQL.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationListView {
+    private Long id;
+    private String numeroReservation;
+    private String chambreNumero;
+    private String clientNom;
+    private String clientPrenom;
+    private LocalDate dateArrivee;
+    private LocalDate dateDepart;
+    private StatutReservation statut;
+    private StatutPaiement statutPaiement;
+    private BigDecimal montantTotal;
+    private BigDecimal montantPaye;
+    private BigDecimal montantRestant;
+    private LocalDateTime createdAt;
+}
@@ -1,9 +1,12 @@
 package com.mghbackend.dto.reponse;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -12,6 +15,14 @@ public class ApiResponse<T> {
 	private String message;
 	private T data;
 
+	// Curseur de la page suivante (listes paginées uniquement)
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String nextCursor;
+
+	public ApiResponse(boolean success, String message, T data) {
+		this(success, message, data, null);
+	}
+
 	// Réponse succès avec data et message par défaut
 	public static <T> ApiResponse<T> success(T data) {
 		return new ApiResponse<>(true, "Opération réussie", data);
@@ -22,6 +33,11 @@ public class ApiResponse<T> {
 		return new ApiResponse<>(true, message, data);
 	}
 
+	// Réponse succès paginée : la page courante et le curseur de la suivante
+	public static <T> ApiResponse<List<T>> page(PageCurseur<T> page) {
+		return new ApiResponse<>(true, "Opération réussie", page.getElements(), page.getNextCursor());
+	}
+
 	// Réponse erreur avec message uniquement
 	public static <T> ApiResponse<T> error(String message) {
 		return new ApiResponse<>(false, message, null);
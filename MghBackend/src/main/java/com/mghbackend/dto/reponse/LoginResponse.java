@@ -12,6 +12,7 @@ import java.util.Set;
 @AllArgsConstructor
 public class LoginResponse {
 	private String token;
+	private String refreshToken;
 	private String type; // "Bearer"
 	private Long id;
 	private String email;
@@ -0,0 +1,28 @@
+package com.mghbackend.dto.reponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résultat d'un élément d'import groupé de réservations.
+ * index est la position de l'élément dans le lot reçu.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultatImportReservation {
+
+    public enum Statut {
+        CREEE,      // réservation créée par cet import
+        EXISTANTE,  // referenceExterne déjà importée : rien n'est recréé
+        REJETEE     // élément invalide ou chambre indisponible
+    }
+
+    private int index;
+    private String referenceExterne;
+    private Statut statut;
+    private Long reservationId;
+    private String numeroReservation;
+    private String message;
+}
@@ -0,0 +1,36 @@
+package com.mghbackend.dto.request;
+
+import com.mghbackend.enums.ModePaiementTransaction;
+import com.mghbackend.enums.StatutTransaction;
+import com.mghbackend.enums.TypeTransaction;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Critères de recherche des transactions d'un hôtel ; un critère null n'est pas appliqué.
+ * Le mot-clé est cherché dans la référence, la description, la catégorie et les notes.
+ */
+@Data
+@NoArgsConstructor
+public class RechercheTransactionRequest {
+
+    private String keyword;
+    private TypeTransaction type;
+    private StatutTransaction statut;
+    private String categorie;
+    private ModePaiementTransaction modePaiement;
+
+    // Période inclusive, sur la date de la transaction
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+
+    private BigDecimal montantMin;
+    private BigDecimal montantMax;
+
+    public RechercheTransactionRequest(String keyword) {
+        this.keyword = keyword;
+    }
+}
@@ -0,0 +1,15 @@
+package com.mghbackend.dto.request;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import jakarta.validation.constraints.NotBlank;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+	@NotBlank(message = "Le jeton de rafraîchissement est obligatoire")
+	private String refreshToken;
+}
@@ -10,8 +10,18 @@ import java.time.LocalDateTime;
 @MappedSuperclass
 @Data
 public abstract class BaseEntity {
+
+	/**
+	 * Séquence partagée des identifiants (table mgh_id_seq sur MySQL), réservée par blocs :
+	 * contrairement à IDENTITY, l'id est connu avant l'INSERT et Hibernate peut grouper
+	 * les insertions en lots JDBC. Amorcée au-dessus des ids existants par MigrationIdentifiants.
+	 */
+	public static final String SEQUENCE_ID = "mgh_id_seq";
+	public static final int TAILLE_BLOC_ID = 50;
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mgh_id")
+	@SequenceGenerator(name = "mgh_id", sequenceName = SEQUENCE_ID, allocationSize = TAILLE_BLOC_ID)
 	private Long id;
 
 	@CreationTimestamp
@@ -5,12 +5,16 @@ import com.mghbackend.enums.TypeChambre;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "chambres")
 @Table(name = "chambres")
 @Data
 @EqualsAndHashCode(callSuper = true)
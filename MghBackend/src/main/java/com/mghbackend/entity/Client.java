@@ -9,7 +9,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "clients")
+@Table(name = "clients",
+        indexes = @Index(name = "idx_client_hotel_created", columnList = "hotel_id, created_at, id"))
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class Client extends BaseEntity {
@@ -11,7 +11,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "commandes_restaurant")
+@NamedEntityGraph(name = "CommandeRestaurant.liste", attributeNodes = {
+        @NamedAttributeNode("client"),
+        @NamedAttributeNode("reservation"),
+        @NamedAttributeNode("serveur")
+})
+@NamedEntityGraph(name = "CommandeRestaurant.detail", attributeNodes = {
+        @NamedAttributeNode("client"),
+        @NamedAttributeNode("reservation"),
+        @NamedAttributeNode("serveur"),
+        @NamedAttributeNode(value = "lignes", subgraph = "lignes")
+}, subgraphs = @NamedSubgraph(name = "lignes", attributeNodes = @NamedAttributeNode("produit")))
+@Table(name = "commandes_restaurant",
+        indexes = @Index(name = "idx_commande_hotel_created", columnList = "hotel_id, created_at, id"))
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class CommandeRestaurant extends BaseEntity {
@@ -67,4 +79,9 @@ public class CommandeRestaurant extends BaseEntity {
 
     @OneToMany(mappedBy = "commande", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<LigneCommande> lignes = new ArrayList<>();
-}
\ No newline at end of file
+
+    // Verrouillage optimiste (paiements, changements de statut)
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+}
@@ -11,7 +11,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "factures")
+@NamedEntityGraph(name = "Facture.liste", attributeNodes = {
+        @NamedAttributeNode("client"),
+        @NamedAttributeNode("reservation"),
+        @NamedAttributeNode("commandeRestaurant")
+})
+@NamedEntityGraph(name = "Facture.detail", attributeNodes = {
+        @NamedAttributeNode("client"),
+        @NamedAttributeNode("reservation"),
+        @NamedAttributeNode("commandeRestaurant"),
+        @NamedAttributeNode("lignes")
+})
+@Table(name = "factures",
+        indexes = @Index(name = "idx_facture_hotel_created", columnList = "hotel_id, created_at, id"))
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class Facture extends BaseEntity {
@@ -71,4 +83,9 @@ public class Facture extends BaseEntity {
 
     @OneToMany(mappedBy = "facture", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<LigneFacture> lignes = new ArrayList<>();
-}
\ No newline at end of file
+
+    // Verrouillage optimiste (paiements concurrents)
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+}
@@ -0,0 +1,26 @@
+package com.mghbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marque d'un hôtel dont les agrégats finance_rollups_jour sont complets.
+ * Écrite dans la même transaction que leur reconstruction : un hôtel sans marque n'a jamais
+ * été reconstruit jusqu'au bout, quel que soit le contenu de finance_rollups_jour.
+ */
+@Entity
+@Table(name = "finance_rollups_hotels")
+@Data
+@NoArgsConstructor
+public class FinanceRollupHotel {
+
+    @Id
+    @Column(name = "hotel_id")
+    private Long hotelId;
+
+    @Column(name = "construit_le", nullable = false)
+    private LocalDateTime construitLe;
+}
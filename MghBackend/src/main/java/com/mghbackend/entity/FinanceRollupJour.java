@@ -0,0 +1,50 @@
+package com.mghbackend.entity;
+
+import com.mghbackend.enums.StatutTransaction;
+import com.mghbackend.enums.TypeTransaction;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Agrégat journalier des transactions : nombre et montant par hôtel, jour, type, catégorie et statut.
+ * Tenu à jour par FinanceRollupService dans la même transaction que l'écriture d'origine.
+ */
+@Entity
+@Table(name = "finance_rollups_jour",
+        uniqueConstraints = @UniqueConstraint(name = "uk_finance_rollup",
+                columnNames = {"hotel_id", "jour", "type", "categorie", "statut"}))
+@Data
+@NoArgsConstructor
+public class FinanceRollupJour {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hotel_id", nullable = false)
+    private Long hotelId;
+
+    @Column(nullable = false)
+    private LocalDate jour;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TypeTransaction type;
+
+    @Column(nullable = false)
+    private String categorie;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatutTransaction statut;
+
+    @Column(nullable = false)
+    private Long nombre = 0L;
+
+    @Column(nullable = false, precision = 17, scale = 2)
+    private BigDecimal montant = BigDecimal.ZERO;
+}
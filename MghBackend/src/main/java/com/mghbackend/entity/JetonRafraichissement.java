@@ -0,0 +1,44 @@
+package com.mghbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Jeton de rafraîchissement émis à la connexion.
+ * Seul le condensat SHA-256 du jeton est stocké ; chaque utilisation le révoque
+ * et en émet un nouveau (rotation).
+ */
+@Entity
+@Table(name = "jetons_rafraichissement",
+        indexes = @Index(name = "idx_jeton_compte", columnList = "account_type, email"))
+@Data
+@NoArgsConstructor
+public class JetonRafraichissement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hash_jeton", nullable = false, unique = true, length = 64)
+    private String hashJeton;
+
+    @Column(name = "account_type", nullable = false, length = 10)
+    private String accountType;
+
+    @Column(nullable = false)
+    private String email;
+
+    @Column(name = "expire_le", nullable = false)
+    private LocalDateTime expireLe;
+
+    @Column(nullable = false)
+    private Boolean revoque = false;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
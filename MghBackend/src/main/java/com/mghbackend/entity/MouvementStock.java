@@ -9,7 +9,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "mouvements_stock")
+@NamedEntityGraph(name = "MouvementStock.liste", attributeNodes = {
+        @NamedAttributeNode("produit"),
+        @NamedAttributeNode("user")
+})
+@Table(name = "mouvements_stock",
+        indexes = @Index(name = "idx_mouvement_hotel_date", columnList = "hotel_id, date_mouvement, id"))
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class MouvementStock extends BaseEntity {
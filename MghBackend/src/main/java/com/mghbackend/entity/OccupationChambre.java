@@ -0,0 +1,42 @@
+package com.mghbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Nuit occupée d'une chambre par une réservation active.
+ * La contrainte unique (chambre_id, jour) est le garde-fou en base contre la double réservation,
+ * y compris entre plusieurs instances de l'application.
+ */
+@Entity
+@Table(name = "occupations_chambre",
+        uniqueConstraints = @UniqueConstraint(name = "uk_occupation_chambre_jour", columnNames = {"chambre_id", "jour"}),
+        indexes = @Index(name = "idx_occupation_reservation", columnList = "reservation_id"))
+@Data
+@NoArgsConstructor
+public class OccupationChambre {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mgh_id_occupation")
+    @SequenceGenerator(name = "mgh_id_occupation", sequenceName = BaseEntity.SEQUENCE_ID,
+            allocationSize = BaseEntity.TAILLE_BLOC_ID)
+    private Long id;
+
+    @Column(name = "chambre_id", nullable = false)
+    private Long chambreId;
+
+    @Column(nullable = false)
+    private LocalDate jour;
+
+    @Column(name = "reservation_id", nullable = false)
+    private Long reservationId;
+
+    public OccupationChambre(Long chambreId, LocalDate jour, Long reservationId) {
+        this.chambreId = chambreId;
+        this.jour = jour;
+        this.reservationId = reservationId;
+    }
+}
@@ -4,10 +4,14 @@ import com.mghbackend.enums.TypeProduit;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "produits")
 @Table(name = "produits")
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -62,4 +66,9 @@ public class Produit extends BaseEntity {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "hotel_id", nullable = false)
     private Hotel hotel;
-}
\ No newline at end of file
+
+    // Verrouillage optimiste ; decrementerStock l'incrémente aussi
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+}
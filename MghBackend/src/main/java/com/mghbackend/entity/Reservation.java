@@ -12,7 +12,18 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@NamedEntityGraph(name = "Reservation.liste", attributeNodes = {
+        @NamedAttributeNode("chambre"),
+        @NamedAttributeNode("client"),
+        @NamedAttributeNode("createdBy"),
+        @NamedAttributeNode("checkinBy"),
+        @NamedAttributeNode("checkoutBy")
+})
+@Table(name = "reservations",
+        indexes = @Index(name = "idx_reservation_hotel_created", columnList = "hotel_id, created_at, id"),
+        // Idempotence des imports : une référence de plateforme ne crée qu'une réservation par hôtel
+        uniqueConstraints = @UniqueConstraint(name = "uk_reservation_hotel_ref_externe",
+                columnNames = {"hotel_id", "reference_externe"}))
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class Reservation extends BaseEntity {
@@ -93,4 +104,9 @@ public class Reservation extends BaseEntity {
 
     @Column(length = 100)
     private String referenceExterne; // Pour les réservations via plateformes tierces
-}
\ No newline at end of file
+
+    // Verrouillage optimiste : paiements et consommations restaurant concurrents sur un même séjour
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+}
@@ -0,0 +1,35 @@
+package com.mghbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrée de la liste de révocation des jetons d'accès.
+ *
+ * cle = "jti:{id du jeton}" : ce jeton précis est révoqué (déconnexion) ;
+ * cle = "compte:{TYPE}:{email}" : tous les jetons du compte émis avant revoqueLe sont révoqués
+ * (changement de mot de passe, désactivation).
+ * L'entrée peut être purgée après expireLe, quand plus aucun jeton concerné n'est valide.
+ */
+@Entity
+@Table(name = "revocations")
+@Data
+@NoArgsConstructor
+public class Revocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 200)
+    private String cle;
+
+    @Column(name = "revoque_le", nullable = false)
+    private LocalDateTime revoqueLe;
+
+    @Column(name = "expire_le", nullable = false)
+    private LocalDateTime expireLe;
+}
@@ -5,11 +5,15 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "roles")
 @Table(name = "roles")
 @Data
 @EqualsAndHashCode(callSuper = true, exclude = {"roles", "hotel"})
@@ -26,6 +30,7 @@ public class Role extends BaseEntity {
 	private Set<User> users = new HashSet<>();
 
 	@ElementCollection(fetch = FetchType.EAGER)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "roles.permissions")
 	@Enumerated(EnumType.STRING)
 	@CollectionTable(name = "role_permissions", joinColumns = @JoinColumn(name = "role_id"))
 	@Column(name = "permission")
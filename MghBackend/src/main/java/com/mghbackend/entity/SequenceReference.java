@@ -0,0 +1,30 @@
+package com.mghbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compteur des références de transaction par hôtel et par année.
+ * prochaineValeur est le début du prochain bloc à distribuer (schéma hi/lo).
+ */
+@Entity
+@Table(name = "sequences_reference",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sequence_reference", columnNames = {"hotel_id", "annee"}))
+@Data
+@NoArgsConstructor
+public class SequenceReference {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "hotel_id", nullable = false)
+    private Long hotelId;
+
+    @Column(nullable = false)
+    private Integer annee;
+
+    @Column(name = "prochaine_valeur", nullable = false)
+    private Long prochaineValeur = 1L;
+}
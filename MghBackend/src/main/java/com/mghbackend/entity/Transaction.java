@@ -11,13 +11,22 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions",
+        indexes = {
+                @Index(name = "idx_transaction_hotel_date", columnList = "hotel_id, date_transaction, id"),
+                // Recherche filtrée (TransactionSpecifications) : critère d'égalité puis tri par date
+                @Index(name = "idx_transaction_hotel_type_date", columnList = "hotel_id, type, date_transaction, id"),
+                @Index(name = "idx_transaction_hotel_statut_date", columnList = "hotel_id, statut, date_transaction, id"),
+                @Index(name = "idx_transaction_hotel_categorie_date", columnList = "hotel_id, categorie, date_transaction, id")
+        })
 @Data
 @NoArgsConstructor
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mgh_id_transaction")
+    @SequenceGenerator(name = "mgh_id_transaction", sequenceName = BaseEntity.SEQUENCE_ID,
+            allocationSize = BaseEntity.TAILLE_BLOC_ID)
     private Long id;
 
     @Column(unique = true)
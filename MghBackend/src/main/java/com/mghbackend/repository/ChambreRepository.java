@@ -4,8 +4,11 @@ import com.mghbackend.entity.Chambre;
 import com.mghbackend.entity.Hotel;
 import com.mghbackend.enums.StatutChambre;
 import com.mghbackend.enums.TypeChambre;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -16,12 +19,15 @@ import java.util.Optional;
 @Repository
 public interface ChambreRepository extends JpaRepository<Chambre, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Chambre> findByHotel(Hotel hotel);
 
     List<Chambre> findByHotelAndStatut(Hotel hotel, StatutChambre statut);
 
     List<Chambre> findByHotelAndType(Hotel hotel, TypeChambre type);
 
+    List<Chambre> findByHotelAndTypeAndStatut(Hotel hotel, TypeChambre type, StatutChambre statut);
+
     Optional<Chambre> findByHotelAndNumero(Hotel hotel, String numero);
 
     boolean existsByHotelAndNumero(Hotel hotel, String numero);
@@ -57,5 +63,15 @@ public interface ChambreRepository extends JpaRepository<Chambre, Long> {
 
     long countByHotelAndStatut(Hotel hotel, StatutChambre statut);
 
+    /** Nombre de chambres par statut, en une seule requête. */
+    @Query("SELECT c.statut AS statut, COUNT(c) AS nombre FROM Chambre c " +
+            "WHERE c.hotel.id = :hotelId GROUP BY c.statut")
+    List<NombreParStatut> countParStatut(@Param("hotelId") Long hotelId);
+
+    interface NombreParStatut {
+        StatutChambre getStatut();
+        Long getNombre();
+    }
+
     long countByHotelAndType(Hotel hotel, TypeChambre type);
 }
\ No newline at end of file
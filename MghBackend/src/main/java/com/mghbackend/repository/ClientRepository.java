@@ -1,12 +1,16 @@
 package com.mghbackend.repository;
 
+import com.mghbackend.dto.liste.ClientListView;
 import com.mghbackend.entity.Client;
 import com.mghbackend.entity.Hotel;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,10 +19,47 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
 
     List<Client> findByHotel(Hotel hotel);
 
+    // ─── Pagination par curseur (tri createdAt DESC, id DESC) ────────────────
+
+    List<Client> findByHotelOrderByCreatedAtDescIdDesc(Hotel hotel, Pageable pageable);
+
+    @Query("SELECT c FROM Client c WHERE c.hotel = :hotel AND c.createdAt <= :date " +
+            "AND (c.createdAt < :date OR c.id < :id) ORDER BY c.createdAt DESC, c.id DESC")
+    List<Client> findPageByHotelApres(
+            @Param("hotel") Hotel hotel,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    // ─── Vues de liste (projection, sans entités gérées) ─────────────────────
+
+    @Query("SELECT new com.mghbackend.dto.liste.ClientListView(" +
+            "c.id, c.nom, c.prenom, c.email, c.telephone, c.ville, c.createdAt) " +
+            "FROM Client c WHERE c.hotel.id = :hotelId " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ClientListView> findVuesByHotelId(@Param("hotelId") Long hotelId, Pageable pageable);
+
+    @Query("SELECT new com.mghbackend.dto.liste.ClientListView(" +
+            "c.id, c.nom, c.prenom, c.email, c.telephone, c.ville, c.createdAt) " +
+            "FROM Client c WHERE c.hotel.id = :hotelId " +
+            "AND c.createdAt <= :date AND (c.createdAt < :date OR c.id < :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ClientListView> findVuesByHotelIdApres(
+            @Param("hotelId") Long hotelId,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
     Optional<Client> findByHotelAndEmail(Hotel hotel, String email);
 
     Optional<Client> findByHotelAndTelephone(Hotel hotel, String telephone);
 
+    List<Client> findByHotelAndTelephoneIn(Hotel hotel, Collection<String> telephones);
+
+    List<Client> findByEmailIn(Collection<String> emails);
+
     Optional<Client> findByHotelAndPieceIdentite(Hotel hotel, String pieceIdentite);
 
     boolean existsByHotelAndEmail(Hotel hotel, String email);
@@ -28,8 +69,17 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     @Query("SELECT c FROM Client c WHERE c.hotel = :hotel AND " +
             "(c.nom LIKE %:keyword% OR c.prenom LIKE %:keyword% OR " +
             "c.email LIKE %:keyword% OR c.telephone LIKE %:keyword% OR " +
-            "c.pieceIdentite LIKE %:keyword%)")
-    List<Client> searchByHotelAndKeyword(@Param("hotel") Hotel hotel, @Param("keyword") String keyword);
+            "c.pieceIdentite LIKE %:keyword%) ORDER BY c.createdAt DESC, c.id DESC")
+    List<Client> searchByHotelAndKeyword(@Param("hotel") Hotel hotel, @Param("keyword") String keyword,
+                                         Pageable pageable);
+
+    // Recherche plein texte (index FULLTEXT ngram, voir RechercheTexteIntegral), par pertinence
+    @Query(value = "SELECT c.id FROM clients c WHERE c.hotel_id = :hotelId " +
+            "AND MATCH(c.nom, c.prenom, c.telephone, c.email, c.piece_identite) AGAINST (:expression IN BOOLEAN MODE) " +
+            "ORDER BY MATCH(c.nom, c.prenom, c.telephone, c.email, c.piece_identite) AGAINST (:expression IN BOOLEAN MODE) DESC, " +
+            "c.id DESC LIMIT :limite", nativeQuery = true)
+    List<Long> rechercherIds(@Param("hotelId") Long hotelId, @Param("expression") String expression,
+                             @Param("limite") int limite);
 
     long countByHotel(Hotel hotel);
 
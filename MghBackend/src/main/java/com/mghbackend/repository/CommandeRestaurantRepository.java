@@ -1,26 +1,73 @@
 package com.mghbackend.repository;
 
+import com.mghbackend.dto.liste.CommandeRestaurantListView;
 import com.mghbackend.entity.Client;
 import com.mghbackend.entity.CommandeRestaurant;
 import com.mghbackend.entity.Hotel;
 import com.mghbackend.entity.Reservation;
 import com.mghbackend.enums.StatutCommandeRestaurant;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.mghbackend.entity.LigneCommande;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CommandeRestaurantRepository extends JpaRepository<CommandeRestaurant, Long> {
 
+    @EntityGraph("CommandeRestaurant.detail")
     List<CommandeRestaurant> findByHotel(Hotel hotel);
 
+    // ─── Pagination par curseur (tri createdAt DESC, id DESC) ────────────────
+
+    @EntityGraph("CommandeRestaurant.liste")
+    List<CommandeRestaurant> findByHotelOrderByCreatedAtDescIdDesc(Hotel hotel, Pageable pageable);
+
+    @EntityGraph("CommandeRestaurant.liste")
+    @Query("SELECT c FROM CommandeRestaurant c WHERE c.hotel = :hotel AND c.createdAt <= :date " +
+            "AND (c.createdAt < :date OR c.id < :id) ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommandeRestaurant> findPageByHotelApres(
+            @Param("hotel") Hotel hotel,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    // ─── Vues de liste (projection, sans entités gérées) ─────────────────────
+
+    @Query("SELECT new com.mghbackend.dto.liste.CommandeRestaurantListView(" +
+            "c.id, c.numeroCommande, c.numeroTable, cl.nom, cl.prenom, " +
+            "c.nomClientExterne, c.statut, c.montantTotal, c.montantPaye, c.dateCommande, c.createdAt) " +
+            "FROM CommandeRestaurant c LEFT JOIN c.client cl WHERE c.hotel.id = :hotelId " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommandeRestaurantListView> findVuesByHotelId(@Param("hotelId") Long hotelId, Pageable pageable);
+
+    @Query("SELECT new com.mghbackend.dto.liste.CommandeRestaurantListView(" +
+            "c.id, c.numeroCommande, c.numeroTable, cl.nom, cl.prenom, " +
+            "c.nomClientExterne, c.statut, c.montantTotal, c.montantPaye, c.dateCommande, c.createdAt) " +
+            "FROM CommandeRestaurant c LEFT JOIN c.client cl WHERE c.hotel.id = :hotelId " +
+            "AND c.createdAt <= :date AND (c.createdAt < :date OR c.id < :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommandeRestaurantListView> findVuesByHotelIdApres(
+            @Param("hotelId") Long hotelId,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @EntityGraph("CommandeRestaurant.detail")
     List<CommandeRestaurant> findByHotelAndStatut(Hotel hotel, StatutCommandeRestaurant statut);
 
+    @EntityGraph("CommandeRestaurant.detail")
     List<CommandeRestaurant> findByClient(Client client);
 
+    @EntityGraph("CommandeRestaurant.detail")
     List<CommandeRestaurant> findByReservation(Reservation reservation);
 
     Optional<CommandeRestaurant> findByNumeroCommande(String numeroCommande);
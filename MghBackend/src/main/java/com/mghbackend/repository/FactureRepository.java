@@ -1,20 +1,66 @@
 package com.mghbackend.repository;
 
+import com.mghbackend.dto.liste.FactureListView;
 import com.mghbackend.entity.*;
 import com.mghbackend.enums.StatutFacture;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface FactureRepository extends JpaRepository<Facture, Long> {
 
+    @EntityGraph("Facture.detail")
     List<Facture> findByHotel(Hotel hotel);
 
+    // ─── Pagination par curseur (tri createdAt DESC, id DESC) ────────────────
+
+    @EntityGraph("Facture.liste")
+    List<Facture> findByHotelOrderByCreatedAtDescIdDesc(Hotel hotel, Pageable pageable);
+
+    @EntityGraph("Facture.liste")
+    @Query("SELECT f FROM Facture f WHERE f.hotel = :hotel AND f.createdAt <= :date " +
+            "AND (f.createdAt < :date OR f.id < :id) ORDER BY f.createdAt DESC, f.id DESC")
+    List<Facture> findPageByHotelApres(
+            @Param("hotel") Hotel hotel,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    // ─── Vues de liste (projection, sans entités gérées) ─────────────────────
+
+    @Query("SELECT new com.mghbackend.dto.liste.FactureListView(" +
+            "f.id, f.numeroFacture, f.dateEmission, f.dateEcheance, f.statut, " +
+            "cl.nom, cl.prenom, f.montantTTC, f.montantPaye, f.montantRestant, f.createdAt) " +
+            "FROM Facture f LEFT JOIN f.client cl WHERE f.hotel.id = :hotelId " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FactureListView> findVuesByHotelId(@Param("hotelId") Long hotelId, Pageable pageable);
+
+    @Query("SELECT new com.mghbackend.dto.liste.FactureListView(" +
+            "f.id, f.numeroFacture, f.dateEmission, f.dateEcheance, f.statut, " +
+            "cl.nom, cl.prenom, f.montantTTC, f.montantPaye, f.montantRestant, f.createdAt) " +
+            "FROM Facture f LEFT JOIN f.client cl WHERE f.hotel.id = :hotelId " +
+            "AND f.createdAt <= :date AND (f.createdAt < :date OR f.id < :id) " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FactureListView> findVuesByHotelIdApres(
+            @Param("hotelId") Long hotelId,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @EntityGraph("Facture.detail")
     List<Facture> findByHotelAndStatut(Hotel hotel, StatutFacture statut);
 
+    @EntityGraph("Facture.detail")
     List<Facture> findByClient(Client client);
 
     List<Facture> findByReservation(Reservation reservation);
@@ -0,0 +1,43 @@
+package com.mghbackend.repository;
+
+import com.mghbackend.entity.FinanceRollupHotel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FinanceRollupHotelRepository extends JpaRepository<FinanceRollupHotel, Long> {
+
+    /**
+     * Verrou partagé sur la marque de l'hôtel (ou sur sa place si elle n'existe pas encore),
+     * jusqu'à la fin de la transaction : les écritures incrémentales le prennent, la
+     * reconstruction prend le verrou exclusif et les attend.
+     */
+    @Query(value = "SELECT hotel_id FROM finance_rollups_hotels WHERE hotel_id = :hotelId FOR SHARE",
+            nativeQuery = true)
+    List<Long> verrouillerPartage(@Param("hotelId") Long hotelId);
+
+    /** Crée ou met à jour la marque, verrou exclusif compris : première instruction d'une reconstruction. */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "finance_rollups_hotels"))
+    @Query(value = "INSERT INTO finance_rollups_hotels (hotel_id, construit_le) VALUES (:hotelId, :construitLe) " +
+            "ON DUPLICATE KEY UPDATE construit_le = VALUES(construit_le)",
+            nativeQuery = true)
+    void marquer(@Param("hotelId") Long hotelId, @Param("construitLe") LocalDateTime construitLe);
+
+    @Query(value = "SELECT hotel_id FROM finance_rollups_hotels", nativeQuery = true)
+    List<Long> findHotelIds();
+
+    @Query(value = "SELECT h.id FROM hotels h WHERE NOT EXISTS " +
+            "(SELECT 1 FROM finance_rollups_hotels m WHERE m.hotel_id = h.id)",
+            nativeQuery = true)
+    List<Long> findHotelIdsSansMarque();
+}
@@ -0,0 +1,78 @@
+package com.mghbackend.repository;
+
+import com.mghbackend.entity.FinanceRollupJour;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface FinanceRollupJourRepository extends JpaRepository<FinanceRollupJour, Long> {
+
+    // ─── Mise à jour incrémentale ─────────────────────────────────────────────
+
+    /** Ajoute un delta (positif ou négatif) à la ligne d'agrégat, en la créant si besoin. */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "finance_rollups_jour"))
+    @Query(value = "INSERT INTO finance_rollups_jour (hotel_id, jour, type, categorie, statut, nombre, montant) " +
+            "VALUES (:hotelId, :jour, :type, :categorie, :statut, :nombre, :montant) " +
+            "ON DUPLICATE KEY UPDATE nombre = nombre + VALUES(nombre), montant = montant + VALUES(montant)",
+            nativeQuery = true)
+    void ajouterDelta(@Param("hotelId") Long hotelId,
+                      @Param("jour") LocalDate jour,
+                      @Param("type") String type,
+                      @Param("categorie") String categorie,
+                      @Param("statut") String statut,
+                      @Param("nombre") long nombre,
+                      @Param("montant") BigDecimal montant);
+
+    // ─── Reconstruction depuis la table transactions ──────────────────────────
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "finance_rollups_jour"))
+    @Query(value = "DELETE FROM finance_rollups_jour WHERE hotel_id = :hotelId", nativeQuery = true)
+    int deleteByHotelId(@Param("hotelId") Long hotelId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "finance_rollups_jour"))
+    @Query(value = "INSERT INTO finance_rollups_jour (hotel_id, jour, type, categorie, statut, nombre, montant) " +
+            "SELECT t.hotel_id, COALESCE(DATE(t.date_transaction), '1970-01-01'), t.type, t.categorie, t.statut, " +
+            "COUNT(*), COALESCE(SUM(t.montant), 0) " +
+            "FROM transactions t WHERE t.hotel_id = :hotelId " +
+            "GROUP BY t.hotel_id, COALESCE(DATE(t.date_transaction), '1970-01-01'), t.type, t.categorie, t.statut",
+            nativeQuery = true)
+    int reconstruireHotel(@Param("hotelId") Long hotelId);
+
+    @Query(value = "SELECT DISTINCT t.hotel_id FROM transactions t", nativeQuery = true)
+    List<Long> findHotelIdsAvecTransactions();
+
+    // ─── Lecture (mêmes projections que TransactionRepository) ────────────────
+
+    @Query("SELECT r.type AS type, r.statut AS statut, SUM(r.nombre) AS nombre, SUM(r.montant) AS montant " +
+            "FROM FinanceRollupJour r WHERE r.hotelId = :hotelId " +
+            "GROUP BY r.type, r.statut")
+    List<TransactionRepository.TotalParTypeStatut> sumByTypeAndStatut(@Param("hotelId") Long hotelId);
+
+    /** Granularité journalière : montantEcoule et montantJour incluent toute la journée en cours. */
+    @Query("SELECT r.type AS type, r.categorie AS categorie, " +
+            "YEAR(r.jour) AS annee, MONTH(r.jour) AS mois, " +
+            "SUM(r.montant) AS montant, " +
+            "SUM(CASE WHEN r.jour <= :aujourdhui THEN r.montant ELSE 0 END) AS montantEcoule, " +
+            "SUM(CASE WHEN r.jour = :aujourdhui THEN r.montant ELSE 0 END) AS montantJour " +
+            "FROM FinanceRollupJour r WHERE r.hotelId = :hotelId AND r.statut = 'VALIDEE' " +
+            "AND r.jour >= :debut " +
+            "GROUP BY r.type, r.categorie, YEAR(r.jour), MONTH(r.jour)")
+    List<TransactionRepository.CumulMensuelCategorie> sumValideesParMoisEtCategorie(
+            @Param("hotelId") Long hotelId,
+            @Param("debut") LocalDate debut,
+            @Param("aujourdhui") LocalDate aujourdhui
+    );
+}
@@ -0,0 +1,31 @@
+package com.mghbackend.repository;
+
+import com.mghbackend.entity.JetonRafraichissement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface JetonRafraichissementRepository extends JpaRepository<JetonRafraichissement, Long> {
+
+    Optional<JetonRafraichissement> findByHashJeton(String hashJeton);
+
+    /** Révoque le jeton s'il ne l'est pas déjà ; 0 signifie qu'il a déjà été utilisé ou révoqué. */
+    @Modifying
+    @Query("UPDATE JetonRafraichissement j SET j.revoque = true WHERE j.id = :id AND j.revoque = false")
+    int revoquer(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE JetonRafraichissement j SET j.revoque = true " +
+            "WHERE j.accountType = :accountType AND j.email = :email AND j.revoque = false")
+    int revoquerCompte(@Param("accountType") String accountType, @Param("email") String email);
+
+    @Modifying
+    @Query("DELETE FROM JetonRafraichissement j WHERE j.expireLe < :date")
+    int purger(@Param("date") LocalDateTime date);
+}
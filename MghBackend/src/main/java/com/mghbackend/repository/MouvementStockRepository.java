@@ -4,9 +4,14 @@ import com.mghbackend.entity.Hotel;
 import com.mghbackend.entity.MouvementStock;
 import com.mghbackend.entity.Produit;
 import com.mghbackend.enums.TypeMouvement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,16 +19,34 @@ public interface MouvementStockRepository extends JpaRepository<MouvementStock,
 
     List<MouvementStock> findByHotel(Hotel hotel);
 
+    // ─── Pagination par curseur (tri dateMouvement DESC, id DESC) ────────────
+
+    @EntityGraph("MouvementStock.liste")
+    List<MouvementStock> findByHotelOrderByDateMouvementDescIdDesc(Hotel hotel, Pageable pageable);
+
+    @EntityGraph("MouvementStock.liste")
+    @Query("SELECT m FROM MouvementStock m WHERE m.hotel = :hotel AND m.dateMouvement <= :date " +
+            "AND (m.dateMouvement < :date OR m.id < :id) ORDER BY m.dateMouvement DESC, m.id DESC")
+    List<MouvementStock> findPageByHotelApres(
+            @Param("hotel") Hotel hotel,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
     List<MouvementStock> findByProduit(Produit produit);
 
     // ── Triés du plus récent au plus ancien ──────────────────────
 
+    @EntityGraph("MouvementStock.liste")
     List<MouvementStock> findByHotelOrderByDateMouvementDesc(Hotel hotel);
 
+    @EntityGraph("MouvementStock.liste")
     List<MouvementStock> findByProduitOrderByDateMouvementDesc(Produit produit);
 
     // ── Filtres par type ──────────────────────────────────────────
 
+    @EntityGraph("MouvementStock.liste")
     List<MouvementStock> findByHotelAndTypeOrderByDateMouvementDesc(Hotel hotel, TypeMouvement type);
 
     // ── Comptages ────────────────────────────────────────────────
@@ -0,0 +1,21 @@
+package com.mghbackend.repository;
+
+import com.mghbackend.entity.OccupationChambre;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OccupationChambreRepository extends JpaRepository<OccupationChambre, Long> {
+
+    @Modifying
+    @Query("DELETE FROM OccupationChambre o WHERE o.reservationId = :reservationId")
+    int deleteByReservationId(@Param("reservationId") Long reservationId);
+
+    @Query("SELECT DISTINCT o.reservationId FROM OccupationChambre o")
+    List<Long> findReservationIds();
+}
@@ -3,11 +3,19 @@ package com.mghbackend.repository;
 import com.mghbackend.entity.Hotel;
 import com.mghbackend.entity.Produit;
 import com.mghbackend.enums.TypeProduit;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,11 +32,34 @@ public interface ProduitRepository extends JpaRepository<Produit, Long> {
     List<Produit> findByHotelAndTypeProduit(Hotel hotel, TypeProduit typeProduit);
 
     /** Produits disponibles d'un type (pour l'affichage menu) */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Produit> findByHotelAndTypeProduitAndDisponibleTrue(Hotel hotel, TypeProduit typeProduit);
 
     /** Tous les produits disponibles (menu complet) */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Produit> findByHotelAndDisponibleTrue(Hotel hotel);
 
+    // ── Mouvements de stock groupés ─────────────────────────────
+
+    /** SELECT ... FOR UPDATE des produits d'une commande, dans l'ordre des id (pas d'interblocage). */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Produit p WHERE p.id IN :ids ORDER BY p.id")
+    List<Produit> findAllForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sortie de stock atomique : décrémente seulement si le stock suffit (0 ligne modifiée sinon)
+     * et marque le produit indisponible dans la même instruction si le stock est épuisé ; un
+     * produit retiré du menu le reste, même s'il lui reste du stock.
+     * disponible est affecté avant quantiteStock : MySQL évalue les affectations de gauche à droite.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Produit p SET " +
+            "p.disponible = CASE WHEN p.quantiteStock > :quantite THEN p.disponible ELSE false END, " +
+            "p.quantiteStock = p.quantiteStock - :quantite, " +
+            "p.version = p.version + 1, p.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE p.id = :id AND p.quantiteStock >= :quantite")
+    int decrementerStock(@Param("id") Long id, @Param("quantite") BigDecimal quantite);
+
     // ── Alertes stock ───────────────────────────────────────────
 
     @Query("SELECT p FROM Produit p WHERE p.hotel = :hotel " +
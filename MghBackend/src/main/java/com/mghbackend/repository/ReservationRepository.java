@@ -1,29 +1,79 @@
 package com.mghbackend.repository;
 
+import com.mghbackend.dto.liste.ReservationListView;
 import com.mghbackend.entity.Chambre;
 import com.mghbackend.entity.Client;
 import com.mghbackend.entity.Hotel;
 import com.mghbackend.entity.Reservation;
 import com.mghbackend.enums.StatutReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
+    @EntityGraph("Reservation.liste")
     List<Reservation> findByHotel(Hotel hotel);
+
+    @EntityGraph("Reservation.liste")
     List<Reservation> findByHotelAndStatut(Hotel hotel, StatutReservation statut);
+    @EntityGraph("Reservation.liste")
     List<Reservation> findByClient(Client client);
     List<Reservation> findByChambre(Chambre chambre);
     Optional<Reservation> findByNumeroReservation(String numeroReservation);
     boolean existsByNumeroReservation(String numeroReservation);
 
+    // ─── Pagination par curseur (tri createdAt DESC, id DESC) ────────────────
+
+    @EntityGraph("Reservation.liste")
+    List<Reservation> findByHotelOrderByCreatedAtDescIdDesc(Hotel hotel, Pageable pageable);
+
+    @EntityGraph("Reservation.liste")
+    @Query("SELECT r FROM Reservation r WHERE r.hotel = :hotel AND r.createdAt <= :date " +
+            "AND (r.createdAt < :date OR r.id < :id) ORDER BY r.createdAt DESC, r.id DESC")
+    List<Reservation> findPageByHotelApres(
+            @Param("hotel") Hotel hotel,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    // ─── Vues de liste (projection, sans entités gérées) ─────────────────────
+
+    @Query("SELECT new com.mghbackend.dto.liste.ReservationListView(" +
+            "r.id, r.numeroReservation, ch.numero, cl.nom, cl.prenom, " +
+            "r.dateArrivee, r.dateDepart, r.statut, r.statutPaiement, " +
+            "r.montantTotal, r.montantPaye, r.montantRestant, r.createdAt) " +
+            "FROM Reservation r JOIN r.chambre ch JOIN r.client cl WHERE r.hotel.id = :hotelId " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReservationListView> findVuesByHotelId(@Param("hotelId") Long hotelId, Pageable pageable);
+
+    @Query("SELECT new com.mghbackend.dto.liste.ReservationListView(" +
+            "r.id, r.numeroReservation, ch.numero, cl.nom, cl.prenom, " +
+            "r.dateArrivee, r.dateDepart, r.statut, r.statutPaiement, " +
+            "r.montantTotal, r.montantPaye, r.montantRestant, r.createdAt) " +
+            "FROM Reservation r JOIN r.chambre ch JOIN r.client cl WHERE r.hotel.id = :hotelId " +
+            "AND r.createdAt <= :date AND (r.createdAt < :date OR r.id < :id) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReservationListView> findVuesByHotelIdApres(
+            @Param("hotelId") Long hotelId,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
     // ─── Disponibilité ────────────────────────────────────────────────────────
 
     /** Conflits de disponibilité pour une chambre sur une période (création) */
@@ -40,7 +90,10 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
      * ✅ NOUVEAU : Conflits de disponibilité en EXCLUANT la réservation en cours de modification.
      * Utilisé pour la prolongation/réduction : la réservation elle-même ne doit pas être
      * considérée comme un conflit avec ses propres nouvelles dates.
+     * SELECT ... FOR UPDATE : lit les dernières réservations validées, quel que soit l'instantané
+     * de la transaction (la réservation modifiée est lue avant le verrou de chambre).
      */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT r FROM Reservation r WHERE r.chambre = :chambre AND " +
             "r.id != :excludeId AND " +
             "r.statut NOT IN ('ANNULEE', 'TERMINEE') AND " +
@@ -52,26 +105,86 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
             @Param("excludeId") Long excludeId
     );
 
+    /** Occupation des chambres par les réservations actives (chargement de DisponibiliteIndex). */
+    @Query("SELECT r.id AS id, r.hotel.id AS hotelId, r.chambre.id AS chambreId, " +
+            "r.dateArrivee AS dateArrivee, r.dateDepart AS dateDepart " +
+            "FROM Reservation r WHERE r.statut NOT IN ('ANNULEE', 'TERMINEE')")
+    List<OccupationView> findOccupationsActives();
+
+    /** Occupations actives d'un ensemble de chambres sur une période (import groupé). */
+    @Query("SELECT r.id AS id, r.hotel.id AS hotelId, r.chambre.id AS chambreId, " +
+            "r.dateArrivee AS dateArrivee, r.dateDepart AS dateDepart " +
+            "FROM Reservation r WHERE r.chambre.id IN :chambreIds AND " +
+            "r.statut NOT IN ('ANNULEE', 'TERMINEE') AND " +
+            "r.dateArrivee <= :fin AND r.dateDepart >= :debut")
+    List<OccupationView> findOccupationsByChambresAndPeriode(
+            @Param("chambreIds") Collection<Long> chambreIds,
+            @Param("debut") LocalDate debut,
+            @Param("fin") LocalDate fin
+    );
+
+    /** Réservations déjà importées (idempotence sur referenceExterne). */
+    List<Reservation> findByHotelAndReferenceExterneIn(Hotel hotel, Collection<String> referencesExternes);
+
+    interface OccupationView {
+        Long getId();
+        Long getHotelId();
+        Long getChambreId();
+        LocalDate getDateArrivee();
+        LocalDate getDateDepart();
+    }
+
     // ─── Requêtes par date ────────────────────────────────────────────────────
 
+    @EntityGraph("Reservation.liste")
     @Query("SELECT r FROM Reservation r WHERE r.hotel = :hotel AND r.dateArrivee = :date")
     List<Reservation> findArrivalsForToday(@Param("hotel") Hotel hotel, @Param("date") LocalDate date);
 
+    @EntityGraph("Reservation.liste")
     @Query("SELECT r FROM Reservation r WHERE r.hotel = :hotel AND r.dateDepart = :date")
     List<Reservation> findDeparturesForToday(@Param("hotel") Hotel hotel, @Param("date") LocalDate date);
 
+    @EntityGraph("Reservation.liste")
     @Query("SELECT r FROM Reservation r WHERE r.hotel = :hotel AND r.statut = 'EN_COURS'")
     List<Reservation> findReservationsEnCours(@Param("hotel") Hotel hotel);
 
+    @EntityGraph("Reservation.liste")
     @Query("SELECT r FROM Reservation r WHERE r.hotel = :hotel AND " +
             "r.statut = 'CONFIRMEE' AND r.dateArrivee > :date")
     List<Reservation> findReservationsAVenir(@Param("hotel") Hotel hotel, @Param("date") LocalDate date);
 
+    @EntityGraph("Reservation.liste")
     @Query("SELECT r FROM Reservation r WHERE r.hotel = :hotel AND " +
             "(r.numeroReservation LIKE %:keyword% OR " +
             "r.client.nom LIKE %:keyword% OR r.client.prenom LIKE %:keyword% OR " +
-            "r.chambre.numero LIKE %:keyword%)")
-    List<Reservation> searchByHotelAndKeyword(@Param("hotel") Hotel hotel, @Param("keyword") String keyword);
+            "r.chambre.numero LIKE %:keyword%) ORDER BY r.createdAt DESC, r.id DESC")
+    List<Reservation> searchByHotelAndKeyword(@Param("hotel") Hotel hotel, @Param("keyword") String keyword,
+                                              Pageable pageable);
+
+    // ─── Recherche plein texte (index FULLTEXT ngram, voir RechercheTexteIntegral) ──
+
+    /**
+     * Ids des réservations les plus pertinentes : numéro ou référence externe, client (nom,
+     * prénom, téléphone, email, pièce d'identité) par leurs index plein texte, numéro de
+     * chambre exact. Une branche par index, pour que chacune soit servie par le sien.
+     */
+    @Query(value = "SELECT id FROM (" +
+            "SELECT r.id, MATCH(r.numero_reservation, r.reference_externe) AGAINST (:expression IN BOOLEAN MODE) AS score " +
+            "FROM reservations r WHERE r.hotel_id = :hotelId " +
+            "AND MATCH(r.numero_reservation, r.reference_externe) AGAINST (:expression IN BOOLEAN MODE) " +
+            "UNION ALL " +
+            "SELECT r.id, MATCH(c.nom, c.prenom, c.telephone, c.email, c.piece_identite) AGAINST (:expression IN BOOLEAN MODE) " +
+            "FROM clients c JOIN reservations r ON r.client_id = c.id WHERE c.hotel_id = :hotelId " +
+            "AND MATCH(c.nom, c.prenom, c.telephone, c.email, c.piece_identite) AGAINST (:expression IN BOOLEAN MODE) " +
+            "UNION ALL " +
+            "SELECT r.id, 0 FROM reservations r JOIN chambres ch ON ch.id = r.chambre_id " +
+            "WHERE r.hotel_id = :hotelId AND ch.numero = :keyword" +
+            ") resultats GROUP BY id ORDER BY MAX(score) DESC, id DESC LIMIT :limite", nativeQuery = true)
+    List<Long> rechercherIds(@Param("hotelId") Long hotelId, @Param("expression") String expression,
+                             @Param("keyword") String keyword, @Param("limite") int limite);
+
+    @EntityGraph("Reservation.liste")
+    List<Reservation> findByIdIn(Collection<Long> ids);
 
     // ─── Statistiques ─────────────────────────────────────────────────────────
 
@@ -0,0 +1,38 @@
+package com.mghbackend.repository;
+
+import com.mghbackend.entity.Revocation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RevocationRepository extends JpaRepository<Revocation, Long> {
+
+    /** Crée l'entrée ou, pour une clé de compte déjà présente, avance la date de révocation. */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "revocations"))
+    @Query(value = "INSERT INTO revocations (cle, revoque_le, expire_le) VALUES (:cle, :revoqueLe, :expireLe) " +
+            "ON DUPLICATE KEY UPDATE revoque_le = VALUES(revoque_le), " +
+            "expire_le = GREATEST(expire_le, VALUES(expire_le))", nativeQuery = true)
+    void enregistrer(@Param("cle") String cle,
+                     @Param("revoqueLe") LocalDateTime revoqueLe,
+                     @Param("expireLe") LocalDateTime expireLe);
+
+    Optional<Revocation> findByCle(String cle);
+
+    @Query("SELECT r.cle FROM Revocation r WHERE r.expireLe > :date")
+    List<String> findClesActives(@Param("date") LocalDateTime date);
+
+    @Modifying
+    @Query("DELETE FROM Revocation r WHERE r.expireLe < :date")
+    int purger(@Param("date") LocalDateTime date);
+}
@@ -3,13 +3,26 @@ package com.mghbackend.repository;
 import com.mghbackend.entity.Transaction;
 import com.mghbackend.enums.StatutTransaction;
 import com.mghbackend.enums.TypeTransaction;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>,
+        JpaSpecificationExecutor<Transaction> {
 
     List<Transaction> findByHotelIdOrderByDateTransactionDesc(Long hotelId);
 
@@ -18,4 +31,85 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByHotelIdAndStatutOrderByDateTransactionDesc(Long hotelId, StatutTransaction statut);
 
     long countByHotelId(Long hotelId);
+
+    // ─── Pagination par curseur (tri dateTransaction DESC, id DESC) ──────────
+
+    List<Transaction> findByHotelIdOrderByDateTransactionDescIdDesc(Long hotelId, Pageable pageable);
+
+    @Query("SELECT t FROM Transaction t WHERE t.hotelId = :hotelId AND t.dateTransaction <= :date " +
+            "AND (t.dateTransaction < :date OR t.id < :id) ORDER BY t.dateTransaction DESC, t.id DESC")
+    List<Transaction> findPageByHotelIdApres(
+            @Param("hotelId") Long hotelId,
+            @Param("date") LocalDateTime date,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    // ─── Export ───────────────────────────────────────────────────────────────
+
+    /**
+     * Transactions d'un hôtel sur [debut, fin[ (bornes facultatives), lues en flux.
+     * Integer.MIN_VALUE comme fetch size active le streaming ligne à ligne du driver MySQL.
+     * À consommer dans une transaction, puis fermer le Stream.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.hotelId = :hotelId " +
+            "AND (:debut IS NULL OR t.dateTransaction >= :debut) " +
+            "AND (:fin IS NULL OR t.dateTransaction < :fin) " +
+            "ORDER BY t.dateTransaction DESC, t.id DESC")
+    Stream<Transaction> streamByHotelIdAndPeriode(
+            @Param("hotelId") Long hotelId,
+            @Param("debut") LocalDateTime debut,
+            @Param("fin") LocalDateTime fin
+    );
+
+    // ─── Statistiques (agrégées en base) ──────────────────────────────────────
+
+    /** Nombre et montant des transactions par type et statut, tout historique confondu. */
+    @Query("SELECT t.type AS type, t.statut AS statut, COUNT(t) AS nombre, " +
+            "COALESCE(SUM(t.montant), 0) AS montant " +
+            "FROM Transaction t WHERE t.hotelId = :hotelId " +
+            "GROUP BY t.type, t.statut")
+    List<TotalParTypeStatut> sumByTypeAndStatut(@Param("hotelId") Long hotelId);
+
+    /**
+     * Montants VALIDEE par type, catégorie et mois à partir de :debut.
+     * montantEcoule ne retient que les transactions datées au plus tard à :maintenant,
+     * montantJour celles comprises entre :debutJour et :maintenant.
+     */
+    @Query("SELECT t.type AS type, t.categorie AS categorie, " +
+            "YEAR(t.dateTransaction) AS annee, MONTH(t.dateTransaction) AS mois, " +
+            "SUM(t.montant) AS montant, " +
+            "SUM(CASE WHEN t.dateTransaction <= :maintenant THEN t.montant ELSE 0 END) AS montantEcoule, " +
+            "SUM(CASE WHEN t.dateTransaction >= :debutJour AND t.dateTransaction <= :maintenant " +
+            "THEN t.montant ELSE 0 END) AS montantJour " +
+            "FROM Transaction t WHERE t.hotelId = :hotelId AND t.statut = 'VALIDEE' " +
+            "AND t.dateTransaction >= :debut " +
+            "GROUP BY t.type, t.categorie, YEAR(t.dateTransaction), MONTH(t.dateTransaction)")
+    List<CumulMensuelCategorie> sumValideesParMoisEtCategorie(
+            @Param("hotelId") Long hotelId,
+            @Param("debut") LocalDateTime debut,
+            @Param("debutJour") LocalDateTime debutJour,
+            @Param("maintenant") LocalDateTime maintenant
+    );
+
+    interface TotalParTypeStatut {
+        TypeTransaction getType();
+        StatutTransaction getStatut();
+        Long getNombre();
+        BigDecimal getMontant();
+    }
+
+    interface CumulMensuelCategorie {
+        TypeTransaction getType();
+        String getCategorie();
+        Integer getAnnee();
+        Integer getMois();
+        BigDecimal getMontant();
+        BigDecimal getMontantEcoule();
+        BigDecimal getMontantJour();
+    }
 }
\ No newline at end of file
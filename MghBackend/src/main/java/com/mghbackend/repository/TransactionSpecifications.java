@@ -0,0 +1,72 @@
+package com.mghbackend.repository;
+
+import com.mghbackend.dto.request.RechercheTransactionRequest;
+import com.mghbackend.entity.Transaction;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recherche des transactions : chaque critère renseigné devient un prédicat SQL, combinés par AND.
+ * Les égalités (hôtel, type, statut, catégorie) et la période s'appuient sur les index
+ * (hotel_id, critère, date_transaction, id) de Transaction ; le mot-clé et les montants
+ * ne filtrent que les lignes déjà retenues par l'index.
+ */
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> recherche(Long hotelId, RechercheTransactionRequest filtre) {
+        return (root, query, cb) -> {
+            List<Predicate> predicats = new ArrayList<>();
+            predicats.add(cb.equal(root.get("hotelId"), hotelId));
+
+            if (filtre.getKeyword() != null && !filtre.getKeyword().isBlank()) {
+                // Collation MySQL insensible à la casse : pas de lower(), % et _ saisis pris littéralement
+                String motif = "%" + filtre.getKeyword().trim()
+                        .replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+                predicats.add(cb.or(
+                        cb.like(root.get("reference"), motif, '!'),
+                        cb.like(root.get("description"), motif, '!'),
+                        cb.like(root.get("categorie"), motif, '!'),
+                        cb.like(root.get("notes"), motif, '!')));
+            }
+            if (filtre.getType() != null) {
+                predicats.add(cb.equal(root.get("type"), filtre.getType()));
+            }
+            if (filtre.getStatut() != null) {
+                predicats.add(cb.equal(root.get("statut"), filtre.getStatut()));
+            }
+            if (filtre.getCategorie() != null && !filtre.getCategorie().isBlank()) {
+                predicats.add(cb.equal(root.get("categorie"), filtre.getCategorie()));
+            }
+            if (filtre.getModePaiement() != null) {
+                predicats.add(cb.equal(root.get("modePaiement"), filtre.getModePaiement()));
+            }
+            if (filtre.getDateDebut() != null) {
+                predicats.add(cb.greaterThanOrEqualTo(root.get("dateTransaction"), filtre.getDateDebut().atStartOfDay()));
+            }
+            if (filtre.getDateFin() != null) {
+                predicats.add(cb.lessThan(root.get("dateTransaction"), filtre.getDateFin().plusDays(1).atStartOfDay()));
+            }
+            if (filtre.getMontantMin() != null) {
+                predicats.add(cb.greaterThanOrEqualTo(root.get("montant"), filtre.getMontantMin()));
+            }
+            if (filtre.getMontantMax() != null) {
+                predicats.add(cb.lessThanOrEqualTo(root.get("montant"), filtre.getMontantMax()));
+            }
+            return cb.and(predicats.toArray(Predicate[]::new));
+        };
+    }
+
+    /** Page suivante (tri dateTransaction DESC, id DESC) : lignes strictement après le curseur. */
+    public static Specification<Transaction> apres(LocalDateTime date, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("dateTransaction"), date),
+                cb.or(cb.lessThan(root.get("dateTransaction"), date), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -1,5 +1,6 @@
 package com.mghbackend.security;
 
+import com.mghbackend.service.RevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +9,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -21,7 +21,8 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 	private final JwtUtil jwtUtil;
-	private final UserDetailsService userDetailsService;
+	private final PrincipalCache principalCache;
+	private final RevocationService revocationService;
 
 	@Override
 	protected void doFilterInternal(HttpServletRequest request,
@@ -30,14 +31,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 		String token = getTokenFromRequest(request);
 
-		if (StringUtils.hasText(token) && jwtUtil.isTokenValid(token) && !jwtUtil.isTokenExpired(token)) {
-			String email = jwtUtil.getEmailFromToken(token);
-			String accountType = jwtUtil.getAccountTypeFromToken(token);
+		// Un seul décodage : signature, expiration et claims
+		JwtClaims claims = StringUtils.hasText(token) ? jwtUtil.parse(token).orElse(null) : null;
 
-			// Construire le nom d'utilisateur avec le type de compte
-			String username = accountType + ":" + email;
-
-			UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+		// Révocation : filtre de Bloom en mémoire, la base n'est consultée qu'en cas de correspondance
+		if (claims != null && !revocationService.estRevoque(claims)) {
+			// Jeton autonome : principal construit depuis les claims, sans base.
+			// Sinon compte relu en base uniquement si absent du cache.
+			UserDetails userDetails = claims.autonome()
+					? claims.toPrincipal()
+					: principalCache.charger(claims.accountType(), claims.email());
 
 			if (userDetails != null) {
 				UsernamePasswordAuthenticationToken authentication =
@@ -0,0 +1,69 @@
+package com.mghbackend.security;
+
+import com.mghbackend.enums.TypePermission;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Contenu d'un jeton déjà vérifié (signature et expiration) par JwtUtil.
+ *
+ * Jetons autonomes (jwt.stateless) : hotelId, rôles et permissions sont embarqués,
+ * les permissions sous forme de masque de bits sur les ordinaux de TypePermission.
+ * Le filtre construit alors le principal sans accès à la base.
+ * Pour les jetons classiques, permissions vaut null.
+ */
+public record JwtClaims(String jti, String email, String accountType, Long id, Long hotelId,
+                        Long permissions, List<String> roles, Date issuedAt, Date expiration) {
+
+	private static final String PREFIXE_ROLE = "ROLE_";
+	private static final String PREFIXE_PERMISSION = "PERMISSION_";
+
+	/** Vrai si le jeton porte tout le nécessaire pour construire le principal. */
+	public boolean autonome() {
+		return permissions != null && hotelId != null;
+	}
+
+	public CustomUserPrincipal toPrincipal() {
+		Set<GrantedAuthority> authorities = new HashSet<>();
+		if (roles != null) {
+			for (String role : roles) {
+				authorities.add(new SimpleGrantedAuthority(PREFIXE_ROLE + role));
+			}
+		}
+		for (TypePermission permission : TypePermission.values()) {
+			if ((permissions & (1L << permission.ordinal())) != 0) {
+				authorities.add(new SimpleGrantedAuthority(PREFIXE_PERMISSION + permission.name()));
+			}
+		}
+		return new CustomUserPrincipal(id, email, null, accountType, hotelId, authorities);
+	}
+
+	static long masquePermissions(Collection<? extends GrantedAuthority> authorities) {
+		long masque = 0;
+		for (GrantedAuthority authority : authorities) {
+			String nom = authority.getAuthority();
+			if (nom.startsWith(PREFIXE_PERMISSION)) {
+				masque |= 1L << TypePermission.valueOf(nom.substring(PREFIXE_PERMISSION.length())).ordinal();
+			}
+		}
+		return masque;
+	}
+
+	static List<String> roles(Collection<? extends GrantedAuthority> authorities) {
+		List<String> roles = new ArrayList<>();
+		for (GrantedAuthority authority : authorities) {
+			String nom = authority.getAuthority();
+			if (nom.startsWith(PREFIXE_ROLE)) {
+				roles.add(nom.substring(PREFIXE_ROLE.length()));
+			}
+		}
+		return roles;
+	}
+}
@@ -2,11 +2,15 @@ package com.mghbackend.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
@@ -17,8 +21,24 @@ public class JwtUtil {
 	@Value("${jwt.expiration:86400000}") // 24 heures par défaut
 	private long expiration;
 
-	private SecretKey getSigningKey() {
-		return Keys.hmacShaKeyFor(secret.getBytes());
+	// Jetons autonomes : hotelId, rôles et permissions embarqués, durée de vie courte
+	@Value("${jwt.stateless:false}")
+	private boolean stateless;
+
+	@Value("${jwt.access-expiration:900000}") // 15 minutes par défaut
+	private long accessExpiration;
+
+	@Value("${jwt.refresh-expiration:604800000}") // 7 jours par défaut
+	private long refreshExpiration;
+
+	// Clé HMAC et parseur construits une seule fois (tous deux immuables et thread-safe)
+	private SecretKey signingKey;
+	private JwtParser parser;
+
+	@PostConstruct
+	void init() {
+		signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+		parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
 	}
 
 	public String generateToken(String email, String accountType, Long id) {
@@ -26,50 +46,73 @@ public class JwtUtil {
 		Date expiryDate = new Date(now.getTime() + expiration);
 
 		return Jwts.builder()
+				.setId(UUID.randomUUID().toString())
 				.setSubject(email)
 				.claim("accountType", accountType)
 				.claim("id", id)
 				.setIssuedAt(now)
 				.setExpiration(expiryDate)
-				.signWith(getSigningKey(), SignatureAlgorithm.HS256)
+				.signWith(signingKey, SignatureAlgorithm.HS256)
 				.compact();
 	}
 
-	private Claims extractAllClaims(String token) {
-		return Jwts
-				.parserBuilder()
-				.setSigningKey(getSigningKey())
-				.build()
-				.parseClaimsJws(token)
-				.getBody();
-	}
-
-	public String getEmailFromToken(String token) {
-		return extractAllClaims(token).getSubject();
+	/**
+	 * Jeton d'accès du principal. En mode jwt.stateless, il embarque hotelId, rôles et
+	 * masque de permissions, et expire après jwt.access-expiration : c'est le délai maximal
+	 * pendant lequel un changement de droits peut ne pas être vu.
+	 */
+	public String generateAccessToken(CustomUserPrincipal principal) {
+		if (!stateless) {
+			return generateToken(principal.getEmail(), principal.getAccountType(), principal.getId());
+		}
+		Date now = new Date();
+		return Jwts.builder()
+				.setId(UUID.randomUUID().toString())
+				.setSubject(principal.getEmail())
+				.claim("accountType", principal.getAccountType())
+				.claim("id", principal.getId())
+				.claim("hotelId", principal.getHotelId())
+				.claim("perm", JwtClaims.masquePermissions(principal.getAuthorities()))
+				.claim("roles", JwtClaims.roles(principal.getAuthorities()))
+				.setIssuedAt(now)
+				.setExpiration(new Date(now.getTime() + accessExpiration))
+				.signWith(signingKey, SignatureAlgorithm.HS256)
+				.compact();
 	}
 
-	public String getAccountTypeFromToken(String token) {
-		return extractAllClaims(token).get("accountType", String.class);
+	/** Durée de vie maximale d'un jeton d'accès encore en circulation, quel que soit son format. */
+	public long getDureeMaxAcces() {
+		return Math.max(accessExpiration, expiration);
 	}
 
-	public Long getIdFromToken(String token) {
-		return extractAllClaims(token).get("id", Long.class);
+	public long getRefreshExpiration() {
+		return refreshExpiration;
 	}
 
-	public boolean isTokenValid(String token) {
+	/**
+	 * Vérifie le jeton d'accès (signature et expiration) en un seul décodage.
+	 * Vide si le jeton est invalide ou expiré.
+	 */
+	@SuppressWarnings("unchecked")
+	public Optional<JwtClaims> parse(String token) {
 		try {
-			extractAllClaims(token);
-			return true;
+			Claims claims = extractAllClaims(token);
+			return Optional.of(new JwtClaims(
+					claims.getId(),
+					claims.getSubject(),
+					claims.get("accountType", String.class),
+					claims.get("id", Long.class),
+					claims.get("hotelId", Long.class),
+					claims.get("perm", Long.class),
+					claims.get("roles", List.class),
+					claims.getIssuedAt(),
+					claims.getExpiration()));
 		} catch (JwtException | IllegalArgumentException e) {
-			return false;
+			return Optional.empty();
 		}
 	}
 
-	public boolean isTokenExpired(String token) {
-		try {
-			return extractAllClaims(token).getExpiration().before(new Date());
-		} catch (JwtException | IllegalArgumentException e) {
-			return true;
-		}
+	private Claims extractAllClaims(String token) {
+		return parser.parseClaimsJws(token).getBody();
 	}
 }
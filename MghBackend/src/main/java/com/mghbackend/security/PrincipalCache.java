@@ -0,0 +1,49 @@
+package com.mghbackend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mghbackend.service.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cache des principaux authentifiés, par clé "TYPE:email" (format de CustomUserDetailsService).
+ *
+ * Taille bornée et expiration après écriture ; les services qui modifient un compte
+ * (rôles, mot de passe, activation, email) appellent invalider() pour que le changement
+ * s'applique dès la requête suivante, sans attendre l'expiration.
+ */
+@Component
+public class PrincipalCache {
+
+	private final UserDetailsService userDetailsService;
+	private final Cache<String, UserDetails> principaux;
+
+	public PrincipalCache(UserDetailsService userDetailsService,
+	                      @Value("${securite.principal-cache.taille-max:10000}") long tailleMax,
+	                      @Value("${securite.principal-cache.ttl-secondes:300}") long ttlSecondes) {
+		this.userDetailsService = userDetailsService;
+		this.principaux = Caffeine.newBuilder()
+				.maximumSize(tailleMax)
+				.expireAfterWrite(Duration.ofSeconds(ttlSecondes))
+				.build();
+	}
+
+	public UserDetails charger(String accountType, String email) {
+		return principaux.get(cle(accountType, email), userDetailsService::loadUserByUsername);
+	}
+
+	/** Invalide l'entrée après validation de la transaction courante (immédiatement sinon). */
+	public void invalider(String accountType, String email) {
+		String cle = cle(accountType, email);
+		AfterCommit.run(() -> principaux.invalidate(cle));
+	}
+
+	private static String cle(String accountType, String email) {
+		return accountType + ":" + email;
+	}
+}
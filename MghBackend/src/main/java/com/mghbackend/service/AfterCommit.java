@@ -0,0 +1,29 @@
+package com.mghbackend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Exécute une action une fois la transaction courante validée.
+ * Sans transaction active, l'action est exécutée immédiatement.
+ * Utilisé pour tenir à jour les structures en mémoire (index, caches)
+ * sans jamais refléter une écriture qui serait ensuite annulée (rollback).
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
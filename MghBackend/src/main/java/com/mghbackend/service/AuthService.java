@@ -5,6 +5,7 @@ import com.mghbackend.dto.reponse.LoginResponse;
 import com.mghbackend.entity.*;
 import com.mghbackend.enums.TypePermission;
 import com.mghbackend.repository.HotelRepository;
+import com.mghbackend.repository.JetonRafraichissementRepository;
 import com.mghbackend.repository.UserRepository;
 import com.mghbackend.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +13,14 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -24,6 +33,10 @@ public class AuthService {
 	private final UserRepository userRepository;
 	private final PasswordEncoder passwordEncoder;
 	private final JwtUtil jwtUtil;
+	private final CustomUserDetailsService userDetailsService;
+	private final JetonRafraichissementRepository jetonRafraichissementRepository;
+	private final RevocationService revocationService;
+	private final SecureRandom random = new SecureRandom();
 
 	public LoginResponse authenticate(LoginRequest request) {
 		if ("HOTEL".equals(request.getAccountType())) {
@@ -43,10 +56,94 @@ public class AuthService {
 			throw new RuntimeException("Email ou mot de passe incorrect");
 		}
 
-		String token = jwtUtil.generateToken(hotel.getEmail(), "HOTEL", hotel.getId());
+		return reponseHotel(hotel);
+	}
+
+	private LoginResponse authenticateUser(LoginRequest request) {
+		User user = userRepository.findByEmailAndActiveTrue(request.getEmail())
+				.orElseThrow(() -> new RuntimeException("Email ou mot de passe incorrect"));
+
+		if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+			throw new RuntimeException("Email ou mot de passe incorrect");
+		}
+
+		return reponseUser(user);
+	}
+
+	/**
+	 * Émet une nouvelle paire de jetons à partir d'un jeton de rafraîchissement (rotation :
+	 * le jeton présenté est révoqué). Le compte est relu en base : un compte désactivé ne peut
+	 * plus se rafraîchir, et les rôles/permissions embarqués sont ceux du moment.
+	 * Un jeton déjà utilisé signale un vol probable : tous les jetons du compte sont révoqués.
+	 */
+	@Transactional(noRollbackFor = RuntimeException.class)
+	public LoginResponse refresh(String refreshToken) {
+		JetonRafraichissement jeton = jetonRafraichissementRepository.findByHashJeton(hacher(refreshToken))
+				.orElseThrow(() -> new RuntimeException("Jeton de rafraîchissement invalide"));
+
+		if (jetonRafraichissementRepository.revoquer(jeton.getId()) == 0) {
+			revocationService.revoquerCompte(jeton.getAccountType(), jeton.getEmail());
+			throw new RuntimeException("Jeton de rafraîchissement déjà utilisé, reconnexion nécessaire");
+		}
+		if (jeton.getExpireLe().isBefore(LocalDateTime.now())) {
+			throw new RuntimeException("Jeton de rafraîchissement expiré");
+		}
+
+		if ("HOTEL".equals(jeton.getAccountType())) {
+			return reponseHotel(hotelRepository.findByEmailAndActiveTrue(jeton.getEmail())
+					.orElseThrow(() -> new RuntimeException("Compte introuvable ou désactivé")));
+		} else if ("USER".equals(jeton.getAccountType())) {
+			return reponseUser(userRepository.findByEmailAndActiveTrue(jeton.getEmail())
+					.orElseThrow(() -> new RuntimeException("Compte introuvable ou désactivé")));
+		} else {
+			throw new RuntimeException("Type de compte invalide");
+		}
+	}
 
+	/** Révoque le jeton d'accès présenté et, s'il est fourni, le jeton de rafraîchissement. */
+	public void logout(String accessToken, String refreshToken) {
+		if (accessToken != null) {
+			jwtUtil.parse(accessToken).ifPresent(claims -> {
+				if (claims.jti() != null) {
+					revocationService.revoquerJeton(claims.jti(), claims.expiration());
+				}
+			});
+		}
+		if (refreshToken != null) {
+			jetonRafraichissementRepository.findByHashJeton(hacher(refreshToken))
+					.ifPresent(jeton -> jetonRafraichissementRepository.revoquer(jeton.getId()));
+		}
+	}
+
+	// ─── Jetons de rafraîchissement ───────────────────────────────────────────
+
+	private String emettreJetonRafraichissement(String accountType, String email) {
+		byte[] aleatoire = new byte[32];
+		random.nextBytes(aleatoire);
+		String valeur = Base64.getUrlEncoder().withoutPadding().encodeToString(aleatoire);
+
+		JetonRafraichissement jeton = new JetonRafraichissement();
+		jeton.setHashJeton(hacher(valeur));
+		jeton.setAccountType(accountType);
+		jeton.setEmail(email);
+		jeton.setExpireLe(LocalDateTime.now().plus(jwtUtil.getRefreshExpiration(), ChronoUnit.MILLIS));
+		jetonRafraichissementRepository.save(jeton);
+		return valeur;
+	}
+
+	private static String hacher(String valeur) {
+		try {
+			byte[] condensat = MessageDigest.getInstance("SHA-256").digest(valeur.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(condensat);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private LoginResponse reponseHotel(Hotel hotel) {
 		LoginResponse response = new LoginResponse();
-		response.setToken(token);
+		response.setToken(jwtUtil.generateAccessToken(userDetailsService.toPrincipal(hotel)));
+		response.setRefreshToken(emettreJetonRafraichissement("HOTEL", hotel.getEmail()));
 		response.setType("Bearer");
 		response.setId(hotel.getId());
 		response.setEmail(hotel.getEmail());
@@ -58,22 +155,14 @@ public class AuthService {
 		return response;
 	}
 
-	private LoginResponse authenticateUser(LoginRequest request) {
-		User user = userRepository.findByEmailAndActiveTrue(request.getEmail())
-				.orElseThrow(() -> new RuntimeException("Email ou mot de passe incorrect"));
-
-		if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-			throw new RuntimeException("Email ou mot de passe incorrect");
-		}
-
-		String token = jwtUtil.generateToken(user.getEmail(), "USER", user.getId());
-
+	private LoginResponse reponseUser(User user) {
 		Set<TypePermission> permissions = user.getRoles().stream()
 				.flatMap(role -> role.getPermissions().stream())
 				.collect(Collectors.toSet());
 
 		LoginResponse response = new LoginResponse();
-		response.setToken(token);
+		response.setToken(jwtUtil.generateAccessToken(userDetailsService.toPrincipal(user)));
+		response.setRefreshToken(emettreJetonRafraichissement("USER", user.getEmail()));
 		response.setType("Bearer");
 		response.setId(user.getId());
 		response.setEmail(user.getEmail());
@@ -23,6 +23,7 @@ public class ChambreService {
 
     private final ChambreRepository chambreRepository;
     private final HotelRepository hotelRepository;
+    private final DisponibiliteIndex disponibiliteIndex;
 
     public ChambreDto createChambre(Long hotelId, ChambreDto chambreDto) {
         Hotel hotel = hotelRepository.findById(hotelId)
@@ -111,7 +112,16 @@ public class ChambreService {
         }
 
         List<Chambre> chambres;
-        if (request.getTypeChambre() != null) {
+        if (disponibiliteIndex.isPret()) {
+            // Index en mémoire : on ne lit que les chambres DISPONIBLE, l'occupation est testée sans SQL
+            chambres = request.getTypeChambre() != null
+                    ? chambreRepository.findByHotelAndTypeAndStatut(hotel, request.getTypeChambre(), StatutChambre.DISPONIBLE)
+                    : chambreRepository.findByHotelAndStatut(hotel, StatutChambre.DISPONIBLE);
+            chambres = chambres.stream()
+                    .filter(c -> disponibiliteIndex.estLibre(hotelId, c.getId(),
+                            request.getDateArrivee(), request.getDateDepart()))
+                    .collect(Collectors.toList());
+        } else if (request.getTypeChambre() != null) {
             chambres = chambreRepository.findChambresDisponiblesByType(
                     hotel,
                     request.getTypeChambre(),
@@ -1,15 +1,19 @@
 package com.mghbackend.service;
 
 import com.mghbackend.dto.ClientDto;
+import com.mghbackend.dto.liste.ClientListView;
+import com.mghbackend.dto.reponse.PageCurseur;
 import com.mghbackend.entity.Client;
 import com.mghbackend.entity.Hotel;
 import com.mghbackend.repository.ClientRepository;
 import com.mghbackend.repository.HotelRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,6 +23,7 @@ public class ClientService {
 
     private final ClientRepository clientRepository;
     private final HotelRepository hotelRepository;
+    private final RechercheTexteIntegral rechercheTexteIntegral;
 
     public ClientDto createClient(Long hotelId, ClientDto clientDto) {
         Hotel hotel = hotelRepository.findById(hotelId)
@@ -30,6 +35,12 @@ public class ClientService {
             throw new RuntimeException("Un client avec cet email existe déjà");
         }
 
+        Client savedClient = clientRepository.save(nouveauClient(hotel, clientDto));
+        return convertToDto(savedClient);
+    }
+
+    /** Nouveau client (non enregistré) à partir du DTO. */
+    Client nouveauClient(Hotel hotel, ClientDto clientDto) {
         Client client = new Client();
         client.setHotel(hotel);
         client.setPrenom(clientDto.getPrenom());
@@ -44,9 +55,7 @@ public class ClientService {
         client.setVille(clientDto.getVille());
         client.setPays(clientDto.getPays());
         client.setNotes(clientDto.getNotes());
-
-        Client savedClient = clientRepository.save(client);
-        return convertToDto(savedClient);
+        return client;
     }
 
     @Transactional(readOnly = true)
@@ -83,11 +92,46 @@ public class ClientService {
                 .collect(Collectors.toList());
     }
 
+    /** Variante paginée par curseur (plus récents d'abord). */
+    @Transactional(readOnly = true)
+    public PageCurseur<ClientDto> getClientsByHotel(Long hotelId, String curseur, Integer taille) {
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
+        int n = Pagination.taille(taille);
+        Pagination.Curseur position = Pagination.decoder(curseur);
+        List<Client> lignes = position == null
+                ? clientRepository.findByHotelOrderByCreatedAtDescIdDesc(hotel, Pagination.limite(n))
+                : clientRepository.findPageByHotelApres(hotel, position.date(), position.id(), Pagination.limite(n));
+        return Pagination.page(lignes, n, Client::getCreatedAt, Client::getId, this::convertToDto);
+    }
+
+    /**
+     * Écran liste : lignes projetées par la requête (pas d'entités gérées ni de conversion),
+     * paginées par curseur comme la variante ci-dessus.
+     */
     @Transactional(readOnly = true)
-    public List<ClientDto> searchClients(Long hotelId, String keyword) {
+    public PageCurseur<ClientListView> getClientsListe(Long hotelId, String curseur, Integer taille) {
+        int n = Pagination.taille(taille);
+        Pagination.Curseur position = Pagination.decoder(curseur);
+        List<ClientListView> lignes = position == null
+                ? clientRepository.findVuesByHotelId(hotelId, Pagination.limite(n))
+                : clientRepository.findVuesByHotelIdApres(hotelId, position.date(), position.id(), Pagination.limite(n));
+        return Pagination.page(lignes, n, ClientListView::getCreatedAt, ClientListView::getId, Function.identity());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ClientDto> searchClients(Long hotelId, String keyword, Integer taille) {
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
-        return clientRepository.searchByHotelAndKeyword(hotel, keyword).stream()
+        int n = Pagination.taille(taille);
+        String expression = rechercheTexteIntegral.expression(keyword);
+        if (expression == null) {
+            return clientRepository.searchByHotelAndKeyword(hotel, keyword, PageRequest.of(0, n)).stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+        }
+        List<Long> ids = clientRepository.rechercherIds(hotelId, expression, n);
+        return RechercheTexteIntegral.dansLOrdre(ids, clientRepository.findAllById(ids), Client::getId).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
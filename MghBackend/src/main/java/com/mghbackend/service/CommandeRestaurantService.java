@@ -2,6 +2,8 @@ package com.mghbackend.service;
 
 import com.mghbackend.dto.CommandeRestaurantDto;
 import com.mghbackend.dto.LigneCommandeDto;
+import com.mghbackend.dto.liste.CommandeRestaurantListView;
+import com.mghbackend.dto.reponse.PageCurseur;
 import com.mghbackend.entity.*;
 import com.mghbackend.enums.StatutCommandeRestaurant;
 import com.mghbackend.repository.*;
@@ -12,8 +14,10 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,6 +35,7 @@ public class CommandeRestaurantService {
     private final LigneCommandeRepository ligneCommandeRepository;
     private final ProduitService produitService;
     private final TransactionHelper transactionHelper;// ← pour décrémenter le stock
+    private final NumerotationService numerotationService;
 
     // ─────────────────────────────────────────────────────────────
     // Création d'une commande + décrémentation automatique du stock
@@ -44,7 +49,7 @@ public class CommandeRestaurantService {
 
         CommandeRestaurant commande = new CommandeRestaurant();
         commande.setHotel(hotel);
-        commande.setNumeroCommande(generateNumeroCommande());
+        commande.setNumeroCommande(numerotationService.prochainNumero(NumerotationService.PREFIXE_COMMANDE));
         commande.setNumeroTable(dto.getNumeroTable());
         commande.setNotes(dto.getNotes());
 
@@ -66,21 +71,19 @@ public class CommandeRestaurantService {
             userRepository.findById(userId).ifPresent(commande::setServeur);
         }
 
-        // ── Lignes + calcul total + décrémentation stock ──────────
-        BigDecimal montantTotal = BigDecimal.ZERO;
-
+        // ── Produits verrouillés, stock vérifié sur la quantité totale par produit ──
+        Map<Long, BigDecimal> quantites = new LinkedHashMap<>();
         for (LigneCommandeDto ligneDto : dto.getLignes()) {
-            Produit produit = produitRepository.findById(ligneDto.getProduitId())
-                    .orElseThrow(() -> new RuntimeException(
-                            "Produit non trouvé : id=" + ligneDto.getProduitId()));
+            quantites.merge(ligneDto.getProduitId(), BigDecimal.valueOf(ligneDto.getQuantite()), BigDecimal::add);
+        }
+        Map<Long, Produit> produits = produitService.verrouillerProduits(quantites.keySet());
 
+        quantites.forEach((produitId, qte) -> {
+            Produit produit = produits.get(produitId);
             if (!produit.getDisponible()) {
                 throw new RuntimeException(
                         "Le produit '" + produit.getNom() + "' n'est pas disponible");
             }
-
-            BigDecimal qte = BigDecimal.valueOf(ligneDto.getQuantite());
-
             // Vérification stock avant tout enregistrement
             if (produit.getQuantiteStock().compareTo(qte) < 0) {
                 throw new RuntimeException(
@@ -88,6 +91,14 @@ public class CommandeRestaurantService {
                                 "'. Stock disponible : " + produit.getQuantiteStock() +
                                 " " + produit.getUnite());
             }
+        });
+
+        // ── Lignes + calcul total ─────────────────────────────────
+        BigDecimal montantTotal = BigDecimal.ZERO;
+
+        for (LigneCommandeDto ligneDto : dto.getLignes()) {
+            Produit produit = produits.get(ligneDto.getProduitId());
+            BigDecimal qte = BigDecimal.valueOf(ligneDto.getQuantite());
 
             BigDecimal sousTotal = produit.getPrixUnitaire().multiply(qte);
             montantTotal = montantTotal.add(sousTotal);
@@ -101,21 +112,17 @@ public class CommandeRestaurantService {
             ligne.setNotes(ligneDto.getNotes());
 
             commande.getLignes().add(ligne);
-
-            // ✅ Décrémentation automatique du stock
-            produitService.ajusterStock(
-                    produit.getId(),
-                    qte,
-                    com.mghbackend.enums.TypeMouvement.SORTIE,
-                    "Commande restaurant " + commande.getNumeroCommande(),
-                    userId
-            );
-
-            log.info("📦 Stock décrémenté : produit={}, qte={}, restant={}",
-                    produit.getNom(), qte,
-                    produit.getQuantiteStock().subtract(qte));
         }
 
+        // ✅ Décrémentation du stock : un mouvement par produit, écrits en lot
+        produitService.ajusterStocks(produits, quantites,
+                com.mghbackend.enums.TypeMouvement.SORTIE,
+                "Commande restaurant " + commande.getNumeroCommande(),
+                userId);
+        produits.values().forEach(produit ->
+                log.info("📦 Stock décrémenté : produit={}, qte={}, restant={}",
+                        produit.getNom(), quantites.get(produit.getId()), produit.getQuantiteStock()));
+
         commande.setMontantTotal(montantTotal);
         commande.setStatut(StatutCommandeRestaurant.EN_ATTENTE);
 
@@ -146,6 +153,33 @@ public class CommandeRestaurantService {
                 .collect(Collectors.toList());
     }
 
+    /** Variante paginée par curseur (plus récents d'abord). */
+    @Transactional(readOnly = true)
+    public PageCurseur<CommandeRestaurantDto> getCommandesByHotel(Long hotelId, String curseur, Integer taille) {
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
+        int n = Pagination.taille(taille);
+        Pagination.Curseur position = Pagination.decoder(curseur);
+        List<CommandeRestaurant> lignes = position == null
+                ? commandeRepository.findByHotelOrderByCreatedAtDescIdDesc(hotel, Pagination.limite(n))
+                : commandeRepository.findPageByHotelApres(hotel, position.date(), position.id(), Pagination.limite(n));
+        return Pagination.page(lignes, n, CommandeRestaurant::getCreatedAt, CommandeRestaurant::getId, this::convertToDto);
+    }
+
+    /**
+     * Écran liste : lignes projetées par la requête (pas d'entités gérées ni de conversion),
+     * paginées par curseur comme la variante ci-dessus.
+     */
+    @Transactional(readOnly = true)
+    public PageCurseur<CommandeRestaurantListView> getCommandesListe(Long hotelId, String curseur, Integer taille) {
+        int n = Pagination.taille(taille);
+        Pagination.Curseur position = Pagination.decoder(curseur);
+        List<CommandeRestaurantListView> lignes = position == null
+                ? commandeRepository.findVuesByHotelId(hotelId, Pagination.limite(n))
+                : commandeRepository.findVuesByHotelIdApres(hotelId, position.date(), position.id(), Pagination.limite(n));
+        return Pagination.page(lignes, n, CommandeRestaurantListView::getCreatedAt, CommandeRestaurantListView::getId, Function.identity());
+    }
+
     // ─────────────────────────────────────────────────────────────
     // Mises à jour
     // ─────────────────────────────────────────────────────────────
@@ -162,17 +196,16 @@ public class CommandeRestaurantService {
 
         // Si la commande est annulée → remettre le stock
         if (statut == StatutCommandeRestaurant.ANNULEE) {
+            Map<Long, BigDecimal> quantites = new LinkedHashMap<>();
             for (LigneCommande ligne : commande.getLignes()) {
-                produitService.ajusterStock(
-                        ligne.getProduit().getId(),
-                        BigDecimal.valueOf(ligne.getQuantite()),
-                        com.mghbackend.enums.TypeMouvement.RETOUR,
-                        "Annulation commande " + commande.getNumeroCommande(),
-                        null
-                );
-                log.info("♻️  Stock restitué suite annulation : produit={}",
-                        ligne.getProduit().getNom());
+                quantites.merge(ligne.getProduit().getId(), BigDecimal.valueOf(ligne.getQuantite()), BigDecimal::add);
             }
+            produitService.ajusterStocks(quantites,
+                    com.mghbackend.enums.TypeMouvement.RETOUR,
+                    "Annulation commande " + commande.getNumeroCommande(),
+                    null
+            ).values().forEach(produit ->
+                    log.info("♻️  Stock restitué suite annulation : produit={}", produit.getNom()));
 
             // ✅ Retirer le montant de la réservation liée
             if (commande.getReservation() != null) {
@@ -228,14 +261,6 @@ public class CommandeRestaurantService {
     // Utilitaires
     // ─────────────────────────────────────────────────────────────
 
-    private String generateNumeroCommande() {
-        String numero;
-        do {
-            numero = "CMD" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        } while (commandeRepository.findByNumeroCommande(numero).isPresent());
-        return numero;
-    }
-
     private CommandeRestaurantDto convertToDto(CommandeRestaurant commande) {
         CommandeRestaurantDto dto = new CommandeRestaurantDto();
         dto.setId(commande.getId());
@@ -46,7 +46,16 @@ public class CustomUserDetailsService implements UserDetailsService {
 	private UserDetails loadHotelByEmail(String email) {
 		Hotel hotel = hotelRepository.findByEmailAndActiveTrue(email)
 				.orElseThrow(() -> new UsernameNotFoundException("Hôtel non trouvé: " + email));
+		return toPrincipal(hotel);
+	}
+
+	private UserDetails loadUserByEmail(String email) {
+		User user = userRepository.findByEmailAndActiveTrue(email)
+				.orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé: " + email));
+		return toPrincipal(user);
+	}
 
+	public CustomUserPrincipal toPrincipal(Hotel hotel) {
 		Set<GrantedAuthority> authorities = new HashSet<>();
 		authorities.add(new SimpleGrantedAuthority("ROLE_HOTEL"));
 		authorities.add(new SimpleGrantedAuthority("PERMISSION_ACCES_COMPLET"));
@@ -61,10 +70,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 		);
 	}
 
-	private UserDetails loadUserByEmail(String email) {
-		User user = userRepository.findByEmailAndActiveTrue(email)
-				.orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé: " + email));
-
+	public CustomUserPrincipal toPrincipal(User user) {
 		Set<GrantedAuthority> authorities = new HashSet<>();
 		authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
 
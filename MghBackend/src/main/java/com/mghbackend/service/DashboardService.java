@@ -0,0 +1,146 @@
+package com.mghbackend.service;
+
+import com.mghbackend.dto.DashboardDto;
+import com.mghbackend.dto.ReservationDto;
+import com.mghbackend.dto.StatistiquesFinanceDto;
+import com.mghbackend.enums.StatutChambre;
+import com.mghbackend.repository.ChambreRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tableau de bord de la réception.
+ *
+ * Les six lectures sont indépendantes : elles sont lancées en parallèle, chacune sur son
+ * thread virtuel et dans sa propre transaction en lecture seule (celle du service appelé).
+ * La durée de l'appel est celle de la lecture la plus lente, et non leur somme.
+ * Si une lecture échoue ou si le délai est dépassé, l'erreur remonte sans attendre les autres :
+ * elles sont annulées et leur thread interrompu, ce qui coupe une requête JDBC en cours (les
+ * E/S réseau d'un thread virtuel sont interruptibles) et annule sa transaction.
+ */
+@Service
+@Slf4j
+public class DashboardService {
+
+    private static final long DELAI_SECONDES = 30;
+
+    private final ReservationService reservationService;
+    private final TransactionService transactionService;
+    private final ChambreRepository chambreRepository;
+    private final TransactionTemplate lecture;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DashboardService(ReservationService reservationService,
+                            TransactionService transactionService,
+                            ChambreRepository chambreRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.reservationService = reservationService;
+        this.transactionService = transactionService;
+        this.chambreRepository = chambreRepository;
+        this.lecture = new TransactionTemplate(transactionManager);
+        this.lecture.setReadOnly(true);
+    }
+
+    public DashboardDto getDashboard(Long hotelId, boolean avecFinance) {
+        Lectures lectures = new Lectures();
+        Future<List<ReservationDto>> arrivees = lectures.lancer(() -> reservationService.getArrivalsForToday(hotelId));
+        Future<List<ReservationDto>> departs = lectures.lancer(() -> reservationService.getDeparturesForToday(hotelId));
+        Future<List<ReservationDto>> enCours = lectures.lancer(() -> reservationService.getReservationsEnCours(hotelId));
+        Future<List<ReservationDto>> aVenir = lectures.lancer(() -> reservationService.getReservationsAVenir(hotelId));
+        Future<Map<StatutChambre, Long>> chambres = lectures.lancer(() -> lecture.execute(status -> compterChambres(hotelId)));
+        Future<StatistiquesFinanceDto> finance = avecFinance
+                ? lectures.lancer(() -> transactionService.getStatistiques(hotelId))
+                : CompletableFuture.completedFuture(null);
+        lectures.attendre();
+
+        DashboardDto dashboard = new DashboardDto();
+        dashboard.setArriveesDuJour(arrivees.resultNow());
+        dashboard.setDepartsDuJour(departs.resultNow());
+        dashboard.setReservationsEnCours(enCours.resultNow());
+        dashboard.setReservationsAVenir(aVenir.resultNow());
+        dashboard.setChambresParStatut(chambres.resultNow());
+        dashboard.setStatistiquesFinance(finance.resultNow());
+        return dashboard;
+    }
+
+    private Map<StatutChambre, Long> compterChambres(Long hotelId) {
+        Map<StatutChambre, Long> parStatut = new EnumMap<>(StatutChambre.class);
+        for (StatutChambre statut : StatutChambre.values()) {
+            parStatut.put(statut, 0L);
+        }
+        for (ChambreRepository.NombreParStatut ligne : chambreRepository.countParStatut(hotelId)) {
+            parStatut.put(ligne.getStatut(), ligne.getNombre());
+        }
+        return parStatut;
+    }
+
+    /**
+     * Lectures d'un appel, soumises à l'executor : ce sont ses propres Future, dont
+     * cancel(true) interrompt le thread qui exécute la lecture.
+     */
+    private final class Lectures {
+
+        private final CompletionService<Object> terminees = new ExecutorCompletionService<>(executor);
+        private final List<Future<?>> lancees = new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        <T> Future<T> lancer(Callable<T> lecture) {
+            Future<T> future = (Future<T>) terminees.submit(lecture::call);
+            lancees.add(future);
+            return future;
+        }
+
+        /** Attend toutes les lectures ; à la première erreur, annule les autres et la propage. */
+        void attendre() {
+            long echeance = System.nanoTime() + TimeUnit.SECONDS.toNanos(DELAI_SECONDES);
+            try {
+                for (int i = 0; i < lancees.size(); i++) {
+                    Future<Object> terminee = terminees.poll(echeance - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (terminee == null) {
+                        annuler();
+                        throw new RuntimeException("Délai dépassé pour le chargement du tableau de bord");
+                    }
+                    terminee.get();
+                }
+            } catch (ExecutionException e) {
+                annuler();
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new RuntimeException("Chargement du tableau de bord impossible", e.getCause());
+            } catch (InterruptedException e) {
+                annuler();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Chargement du tableau de bord interrompu");
+            }
+        }
+
+        private void annuler() {
+            for (Future<?> lecture : lancees) {
+                lecture.cancel(true);
+            }
+        }
+    }
+
+    @PreDestroy
+    void arreter() {
+        executor.shutdown();
+    }
+}
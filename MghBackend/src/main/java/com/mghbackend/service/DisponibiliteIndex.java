@@ -0,0 +1,198 @@
+package com.mghbackend.service;
+
+import com.mghbackend.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Index en mémoire de l'occupation des chambres : un BitSet par chambre, un bit par jour.
+ *
+ * Un jour est occupé dès qu'une réservation active (ni ANNULEE ni TERMINEE) le couvre,
+ * bornes incluses, ce qui reproduit exactement la règle de conflit de
+ * ReservationRepository.findReservationsByChambreAndPeriode.
+ *
+ * L'index est alimenté par ReservationService (création, modification, annulation,
+ * check-out) après commit, et reconstruit depuis la base au démarrage puis périodiquement.
+ * Tant qu'il n'est pas prêt, ChambreService retombe sur la requête SQL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DisponibiliteIndex {
+
+    /** Jour 0 des BitSet ; les dates antérieures sont ramenées à cette origine. */
+    private static final long ORIGINE = LocalDate.of(2000, 1, 1).toEpochDay();
+
+    private final ReservationRepository reservationRepository;
+
+    /** hotelId → (chambreId → calendrier) */
+    private volatile Map<Long, Map<Long, CalendrierChambre>> index = new ConcurrentHashMap<>();
+    private volatile boolean pret = false;
+
+    /**
+     * Les mises à jour prennent le verrou en lecture (elles sont concurrentes entre elles),
+     * la bascule vers un index reconstruit prend le verrou en écriture.
+     */
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    /** Mises à jour reçues pendant une reconstruction, rejouées sur le nouvel index. */
+    private List<Consumer<Map<Long, Map<Long, CalendrierChambre>>>> journal;
+
+    public boolean isPret() {
+        return pret;
+    }
+
+    // ─── Mises à jour (appliquées après commit) ───────────────────────────────
+
+    /** Enregistre (ou remplace) l'occupation d'une réservation. */
+    public void reserver(Long hotelId, Long chambreId, Long reservationId,
+                         LocalDate dateArrivee, LocalDate dateDepart) {
+        AfterCommit.run(() -> appliquer(idx ->
+                calendrier(idx, hotelId, chambreId).ajouter(reservationId, jour(dateArrivee), jour(dateDepart))));
+    }
+
+    /** Libère les jours occupés par une réservation (annulation, check-out). */
+    public void liberer(Long hotelId, Long chambreId, Long reservationId) {
+        AfterCommit.run(() -> appliquer(idx ->
+                calendrier(idx, hotelId, chambreId).retirer(reservationId)));
+    }
+
+    // ─── Lecture ──────────────────────────────────────────────────────────────
+
+    /** Vrai si aucun jour de [dateArrivee, dateDepart] n'est occupé pour cette chambre. */
+    public boolean estLibre(Long hotelId, Long chambreId, LocalDate dateArrivee, LocalDate dateDepart) {
+        Map<Long, CalendrierChambre> chambres = index.get(hotelId);
+        if (chambres == null) {
+            return true;
+        }
+        CalendrierChambre calendrier = chambres.get(chambreId);
+        return calendrier == null || calendrier.estLibre(jour(dateArrivee), jour(dateDepart));
+    }
+
+    // ─── Reconstruction ───────────────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiser() {
+        reconstruire();
+    }
+
+    @Scheduled(fixedDelayString = "${disponibilite.index.reconciliation-ms:3600000}",
+            initialDelayString = "${disponibilite.index.reconciliation-ms:3600000}")
+    public void reconcilier() {
+        reconstruire();
+    }
+
+    /**
+     * Recharge toutes les réservations actives depuis la base, puis bascule vers le nouvel index.
+     * Les mises à jour arrivées pendant le chargement sont journalisées et rejouées avant la bascule.
+     */
+    public void reconstruire() {
+        verrou.writeLock().lock();
+        try {
+            journal = Collections.synchronizedList(new ArrayList<>());
+        } finally {
+            verrou.writeLock().unlock();
+        }
+
+        Map<Long, Map<Long, CalendrierChambre>> nouvelIndex = new ConcurrentHashMap<>();
+        int nombre = 0;
+        try {
+            for (ReservationRepository.OccupationView o : reservationRepository.findOccupationsActives()) {
+                calendrier(nouvelIndex, o.getHotelId(), o.getChambreId())
+                        .ajouter(o.getId(), jour(o.getDateArrivee()), jour(o.getDateDepart()));
+                nombre++;
+            }
+        } catch (RuntimeException e) {
+            verrou.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                verrou.writeLock().unlock();
+            }
+            log.error("❌ Reconstruction de l'index de disponibilité impossible : {}", e.getMessage());
+            return;
+        }
+
+        verrou.writeLock().lock();
+        try {
+            journal.forEach(op -> op.accept(nouvelIndex));
+            journal = null;
+            index = nouvelIndex;
+            pret = true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        log.info("📅 Index de disponibilité reconstruit : {} réservation(s) active(s)", nombre);
+    }
+
+    // ─── Internes ─────────────────────────────────────────────────────────────
+
+    private void appliquer(Consumer<Map<Long, Map<Long, CalendrierChambre>>> operation) {
+        verrou.readLock().lock();
+        try {
+            operation.accept(index);
+            if (journal != null) {
+                journal.add(operation);
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private static CalendrierChambre calendrier(Map<Long, Map<Long, CalendrierChambre>> idx,
+                                                Long hotelId, Long chambreId) {
+        return idx.computeIfAbsent(hotelId, h -> new ConcurrentHashMap<>())
+                .computeIfAbsent(chambreId, c -> new CalendrierChambre());
+    }
+
+    private static int jour(LocalDate date) {
+        return (int) Math.max(0, date.toEpochDay() - ORIGINE);
+    }
+
+    /**
+     * Jours occupés d'une chambre. Les intervalles par réservation sont conservés
+     * pour pouvoir retirer une réservation sans effacer les jours d'une autre.
+     */
+    static final class CalendrierChambre {
+
+        private final Map<Long, int[]> sejours = new HashMap<>();
+        private final BitSet jours = new BitSet();
+
+        synchronized void ajouter(Long reservationId, int debut, int fin) {
+            int[] precedent = sejours.put(reservationId, new int[]{debut, fin});
+            if (precedent != null) {
+                recalculer();
+            } else {
+                jours.set(debut, fin + 1);
+            }
+        }
+
+        synchronized void retirer(Long reservationId) {
+            if (sejours.remove(reservationId) != null) {
+                recalculer();
+            }
+        }
+
+        synchronized boolean estLibre(int debut, int fin) {
+            int occupe = jours.nextSetBit(debut);
+            return occupe < 0 || occupe > fin;
+        }
+
+        private void recalculer() {
+            jours.clear();
+            for (int[] s : sejours.values()) {
+                jours.set(s[0], s[1] + 1);
+            }
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.mghbackend.service;
 
 import com.mghbackend.dto.FactureDto;
 import com.mghbackend.dto.LigneFactureDto;
+import com.mghbackend.dto.liste.FactureListView;
+import com.mghbackend.dto.reponse.PageCurseur;
 import com.mghbackend.entity.*;
 import com.mghbackend.enums.StatutFacture;
 import com.mghbackend.repository.*;
@@ -13,7 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
-import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,6 +30,7 @@ public class FactureService {
     private final CommandeRestaurantRepository commandeRestaurantRepository;
     private final HotelRepository hotelRepository;
     private final LigneFactureRepository ligneFactureRepository;
+    private final NumerotationService numerotationService;
 
     public FactureDto createFacture(Long hotelId, FactureDto dto) {
         Hotel hotel = hotelRepository.findById(hotelId)
@@ -35,7 +38,7 @@ public class FactureService {
 
         Facture facture = new Facture();
         facture.setHotel(hotel);
-        facture.setNumeroFacture(generateNumeroFacture());
+        facture.setNumeroFacture(numerotationService.prochainNumero(NumerotationService.PREFIXE_FACTURE));
         facture.setDateEmission(dto.getDateEmission());
         facture.setDateEcheance(dto.getDateEcheance());
         facture.setNotes(dto.getNotes());
@@ -103,6 +106,33 @@ public class FactureService {
                 .collect(Collectors.toList());
     }
 
+    /** Variante paginée par curseur (plus récents d'abord). */
+    @Transactional(readOnly = true)
+    public PageCurseur<FactureDto> getFacturesByHotel(Long hotelId, String curseur, Integer taille) {
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
+        int n = Pagination.taille(taille);
+        Pagination.Curseur position = Pagination.decoder(curseur);
+        List<Facture> lignes = position == null
+                ? factureRepository.findByHotelOrderByCreatedAtDescIdDesc(hotel, Pagination.limite(n))
+                : factureRepository.findPageByHotelApres(hotel, position.date(), position.id(), Pagination.limite(n));
+        return Pagination.page(lignes, n, Facture::getCreatedAt, Facture::getId, this::convertToDto);
+    }
+
+    /**
+     * Écran liste : lignes projetées par la requête (pas d'entités gérées ni de conversion),
+     * paginées par curseur comme la variante ci-dessus.
+     */
+    @Transactional(readOnly = true)
+    public PageCurseur<FactureListView> getFacturesListe(Long hotelId, String curseur, Integer taille) {
+        int n = Pagination.taille(taille);
+        Pagination.Curseur position = Pagination.decoder(curseur);
+        List<FactureListView> lignes = position == null
+                ? factureRepository.findVuesByHotelId(hotelId, Pagination.limite(n))
+                : factureRepository.findVuesByHotelIdApres(hotelId, position.date(), position.id(), Pagination.limite(n));
+        return Pagination.page(lignes, n, FactureListView::getCreatedAt, FactureListView::getId, Function.identity());
+    }
+
     public FactureDto emettre(Long factureId) {
         Facture facture = factureRepository.findById(factureId)
                 .orElseThrow(() -> new RuntimeException("Facture non trouvée"));
@@ -127,14 +157,6 @@ public class FactureService {
         return convertToDto(saved);
     }
 
-    private String generateNumeroFacture() {
-        String numero;
-        do {
-            numero = "FAC" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        } while (factureRepository.findByNumeroFacture(numero).isPresent());
-        return numero;
-    }
-
     private FactureDto convertToDto(Facture facture) {
         FactureDto dto = new FactureDto();
         dto.setId(facture.getId());
@@ -214,7 +236,7 @@ public class FactureService {
 
         Facture facture = new Facture();
         facture.setHotel(hotel);
-        facture.setNumeroFacture(generateNumeroFacture());
+        facture.setNumeroFacture(numerotationService.prochainNumero(NumerotationService.PREFIXE_FACTURE));
         facture.setDateEmission(java.time.LocalDate.now());
         facture.setDateEcheance(java.time.LocalDate.now().plusDays(30));
         facture.setReservation(reservation);
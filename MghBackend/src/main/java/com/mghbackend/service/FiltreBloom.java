@@ -0,0 +1,69 @@
+package com.mghbackend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom sur des chaînes : peutContenir() ne renvoie jamais faux pour une clé ajoutée,
+ * et renvoie vrai à tort avec une probabilité proche du taux choisi tant que la capacité
+ * n'est pas dépassée. Ajouts et lectures concurrents sans verrou.
+ */
+final class FiltreBloom {
+
+    private final AtomicLongArray bits;
+    private final long nbBits;
+    private final int nbHachages;
+
+    FiltreBloom(int capacite, double tauxFauxPositifs) {
+        long m = (long) Math.ceil(-capacite * Math.log(tauxFauxPositifs) / (Math.log(2) * Math.log(2)));
+        this.nbBits = Math.max(64, (m + 63) / 64 * 64);
+        this.nbHachages = Math.max(1, (int) Math.round((double) nbBits / capacite * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (nbBits / 64));
+    }
+
+    void ajouter(String cle) {
+        long h1 = hacher(cle);
+        long h2 = melanger(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < nbHachages; i++) {
+            long position = Math.floorMod(h1 + i * h2, nbBits);
+            int mot = (int) (position >>> 6);
+            long masque = 1L << position;
+            long valeur;
+            do {
+                valeur = bits.get(mot);
+            } while ((valeur & masque) == 0 && !bits.compareAndSet(mot, valeur, valeur | masque));
+        }
+    }
+
+    boolean peutContenir(String cle) {
+        long h1 = hacher(cle);
+        long h2 = melanger(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < nbHachages; i++) {
+            long position = Math.floorMod(h1 + i * h2, nbBits);
+            if ((bits.get((int) (position >>> 6)) & (1L << position)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** FNV-1a 64 bits sur l'UTF-8 de la clé, suivi d'un mélange final. */
+    private static long hacher(String cle) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : cle.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        return melanger(h);
+    }
+
+    /** Finaliseur de MurmurHash3 (fmix64). */
+    private static long melanger(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,111 @@
+package com.mghbackend.service;
+
+import com.mghbackend.entity.Transaction;
+import com.mghbackend.repository.FinanceRollupHotelRepository;
+import com.mghbackend.repository.FinanceRollupJourRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tient à jour la table finance_rollups_jour.
+ *
+ * Chaque écriture sur une transaction retire l'ancienne contribution (retirer) puis ajoute
+ * la nouvelle (ajouter), dans la transaction de l'appelant : l'agrégat ne peut donc pas
+ * diverger d'une écriture annulée. reconstruire() recalcule un hôtel depuis la table transactions.
+ *
+ * Un hôtel n'est lu dans les agrégats qu'une fois marqué (finance_rollups_hotels), marque écrite
+ * dans la transaction de sa reconstruction. Au démarrage, chaque hôtel sans marque est
+ * reconstruit : un démarrage interrompu est repris au suivant. La reconstruction prend la marque
+ * en exclusif et les écritures incrémentales en partagé : elles ne s'entrelacent pas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FinanceRollupService {
+
+    /** Jour utilisé pour les transactions sans date (exclues des périodes, comptées dans les totaux). */
+    private static final LocalDate JOUR_INCONNU = LocalDate.EPOCH;
+
+    private final FinanceRollupJourRepository financeRollupJourRepository;
+    private final FinanceRollupHotelRepository financeRollupHotelRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /** Hôtels marqués : leurs statistiques peuvent être lues dans les agrégats. */
+    private final Set<Long> hotelsPrets = ConcurrentHashMap.newKeySet();
+
+    /** Vrai si les agrégats de l'hôtel sont complets : les statistiques peuvent alors les lire. */
+    public boolean isPret(Long hotelId) {
+        return hotelsPrets.contains(hotelId);
+    }
+
+    // ─── Mise à jour incrémentale ─────────────────────────────────────────────
+
+    @Transactional
+    public void ajouter(Transaction t) {
+        appliquer(t, 1);
+    }
+
+    @Transactional
+    public void retirer(Transaction t) {
+        appliquer(t, -1);
+    }
+
+    private void appliquer(Transaction t, int signe) {
+        financeRollupHotelRepository.verrouillerPartage(t.getHotelId());
+        BigDecimal montant = t.getMontant() != null ? t.getMontant() : BigDecimal.ZERO;
+        financeRollupJourRepository.ajouterDelta(
+                t.getHotelId(),
+                t.getDateTransaction() != null ? t.getDateTransaction().toLocalDate() : JOUR_INCONNU,
+                t.getType().name(),
+                t.getCategorie(),
+                t.getStatut().name(),
+                signe,
+                signe > 0 ? montant : montant.negate());
+    }
+
+    // ─── Reconstruction ───────────────────────────────────────────────────────
+
+    /** Recalcule les agrégats d'un hôtel depuis ses transactions, puis le marque. Retourne le nombre de lignes. */
+    @Transactional
+    public int reconstruire(Long hotelId) {
+        // Première instruction de la transaction : attend les écritures incrémentales en cours sur l'hôtel
+        financeRollupHotelRepository.marquer(hotelId, LocalDateTime.now());
+        financeRollupJourRepository.deleteByHotelId(hotelId);
+        int lignes = financeRollupJourRepository.reconstruireHotel(hotelId);
+        AfterCommit.run(() -> hotelsPrets.add(hotelId));
+        log.info("📊 Agrégats finance reconstruits pour l'hôtel {} : {} ligne(s)", hotelId, lignes);
+        return lignes;
+    }
+
+    /** Reconstruit chaque hôtel sans marque ; un échec n'empêche pas les autres hôtels. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiser() {
+        try {
+            hotelsPrets.addAll(financeRollupHotelRepository.findHotelIds());
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            for (Long hotelId : financeRollupHotelRepository.findHotelIdsSansMarque()) {
+                try {
+                    transaction.executeWithoutResult(status -> reconstruire(hotelId));
+                } catch (RuntimeException e) {
+                    log.error("❌ Agrégats finance de l'hôtel {} non reconstruits, statistiques calculées sur " +
+                            "les transactions : {}", hotelId, e.getMessage());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Initialisation des agrégats finance impossible, statistiques calculées sur les transactions : {}",
+                    e.getMessage());
+        }
+    }
+}
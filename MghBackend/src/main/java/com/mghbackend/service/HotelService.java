@@ -5,6 +5,7 @@ import com.mghbackend.dto.request.CreateHotelRequest;
 import com.mghbackend.dto.request.UpdatePasswordRequest;
 import com.mghbackend.entity.Hotel;
 import com.mghbackend.repository.HotelRepository;
+import com.mghbackend.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -21,6 +22,8 @@ public class HotelService {
 
 	private final HotelRepository hotelRepository;
 	private final PasswordEncoder passwordEncoder;
+	private final PrincipalCache principalCache;
+	private final RevocationService revocationService;
 
 	public HotelDto createHotel(CreateHotelRequest request) {
 		// Vérifier si l'email existe déjà
@@ -98,6 +101,7 @@ public class HotelService {
 			throw new RuntimeException("Un hôtel avec ce nom existe déjà");
 		}
 
+		principalCache.invalider("HOTEL", hotel.getEmail());
 		hotel.setName(hotelDto.getName());
 		hotel.setEmail(hotelDto.getEmail());
 		hotel.setPhone(hotelDto.getPhone());
@@ -119,6 +123,8 @@ public class HotelService {
 
 		hotel.setPassword(passwordEncoder.encode(request.getNewPassword()));
 		hotelRepository.save(hotel);
+		principalCache.invalider("HOTEL", hotel.getEmail());
+		revocationService.revoquerCompte("HOTEL", hotel.getEmail());
 	}
 
 	public void toggleActiveStatus(Long hotelId) {
@@ -126,6 +132,10 @@ public class HotelService {
 				.orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
 		hotel.setActive(!hotel.getActive());
 		hotelRepository.save(hotel);
+		principalCache.invalider("HOTEL", hotel.getEmail());
+		if (!hotel.getActive()) {
+			revocationService.revoquerCompte("HOTEL", hotel.getEmail());
+		}
 	}
 
 	public void extendSubscription(Long hotelId, int months) {
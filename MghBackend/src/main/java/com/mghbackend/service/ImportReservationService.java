@@ -0,0 +1,332 @@
+package com.mghbackend.service;
+
+import com.mghbackend.dto.ClientDto;
+import com.mghbackend.dto.reponse.ResultatImportReservation;
+import com.mghbackend.dto.reponse.ResultatImportReservation.Statut;
+import com.mghbackend.dto.request.CreateReservationRequest;
+import com.mghbackend.entity.*;
+import com.mghbackend.enums.StatutChambre;
+import com.mghbackend.repository.*;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Import groupé de réservations (flux des channel managers).
+ *
+ * Chambres et clients sont chargés en une requête chacun, les conflits vérifiés en une seule
+ * requête pour l'ensemble des chambres du lot, puis clients, réservations et nuits occupées
+ * écrits par lots. L'import est idempotent sur referenceExterne : un élément déjà importé est
+ * signalé EXISTANTE. Chaque élément reçoit son propre résultat ; un rejet n'empêche pas les autres.
+ *
+ * Les verrous des chambres du lot sont pris avant toute lecture : l'instantané REPEATABLE READ
+ * suit l'attente, et le contrôle des conflits voit les réservations validées par les détenteurs.
+ * Un chevauchement est donc rejeté élément par élément, sans faire échouer le lot sur la clé
+ * unique des nuits occupées.
+ *
+ * Deux imports concurrents portant la même référence sur des chambres différentes ne se voient
+ * pas : la contrainte unique (hotel_id, reference_externe) fait échouer le second, rejoué une
+ * fois dans une nouvelle transaction où la référence ressort EXISTANTE.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImportReservationService {
+
+    public static final int TAILLE_MAX_LOT = 500;
+
+    private final ReservationRepository reservationRepository;
+    private final ChambreRepository chambreRepository;
+    private final ClientRepository clientRepository;
+    private final HotelRepository hotelRepository;
+    private final UserRepository userRepository;
+    private final ReservationService reservationService;
+    private final ClientService clientService;
+    private final TransactionHelper transactionHelper;
+    private final DisponibiliteIndex disponibiliteIndex;
+    private final OccupationChambreService occupationChambreService;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Importe le lot dans une transaction. Sur une référence importée en parallèle (contrainte
+     * unique), l'import est rejoué une fois dans une nouvelle transaction ; dans une transaction
+     * englobante, seul l'appelant peut rejouer.
+     */
+    public List<ResultatImportReservation> importer(Long hotelId, List<CreateReservationRequest> requetes, Long userId) {
+        if (requetes == null || requetes.isEmpty()) {
+            throw new RuntimeException("Aucune réservation à importer");
+        }
+        if (requetes.size() > TAILLE_MAX_LOT) {
+            throw new RuntimeException("Un import est limité à " + TAILLE_MAX_LOT + " réservations");
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            return transaction.execute(status -> importerLot(hotelId, requetes, userId));
+        } catch (DataIntegrityViolationException e) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                throw e;
+            }
+            return transaction.execute(status -> importerLot(hotelId, requetes, userId));
+        }
+    }
+
+    private List<ResultatImportReservation> importerLot(Long hotelId, List<CreateReservationRequest> requetes,
+                                                        Long userId) {
+        ResultatImportReservation[] resultats = new ResultatImportReservation[requetes.size()];
+        List<Integer> enCours = valider(requetes, resultats);
+
+        // Sérialise avec les créations unitaires et les autres imports sur ces chambres jusqu'au commit,
+        // avant la première lecture de la transaction
+        occupationChambreService.verrouillerTous(valeurs(requetes, enCours, CreateReservationRequest::getChambreId));
+
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
+
+        // ─── Chambres et clients (une requête par type) ───────────────────────
+
+        Map<Long, Chambre> chambres = chambreRepository.findAllById(
+                        valeurs(requetes, enCours, CreateReservationRequest::getChambreId)).stream()
+                .collect(Collectors.toMap(Chambre::getId, Function.identity()));
+        Map<Long, Client> clientsParId = clientRepository.findAllById(
+                        valeurs(requetes, enCours, CreateReservationRequest::getClientId)).stream()
+                .collect(Collectors.toMap(Client::getId, Function.identity()));
+
+        // Nouveaux clients : réutilise un client existant de même email ou téléphone
+        Set<String> emails = valeurs(requetes, enCours, r -> texte(r.getNewClient(), ClientDto::getEmail));
+        Set<String> telephones = valeurs(requetes, enCours, r -> texte(r.getNewClient(), ClientDto::getTelephone));
+        Map<String, Client> clientsParEmail = emails.isEmpty() ? new HashMap<>()
+                : clientRepository.findByEmailIn(emails).stream()
+                .collect(Collectors.toMap(Client::getEmail, Function.identity(), (a, b) -> a, HashMap::new));
+        Map<String, Client> clientsParTelephone = telephones.isEmpty() ? new HashMap<>()
+                : clientRepository.findByHotelAndTelephoneIn(hotel, telephones).stream()
+                .collect(Collectors.toMap(Client::getTelephone, Function.identity(), (a, b) -> a, HashMap::new));
+
+        enCours.removeIf(i -> {
+            CreateReservationRequest requete = requetes.get(i);
+            Chambre chambre = chambres.get(requete.getChambreId());
+            if (chambre == null) {
+                return rejeter(resultats, i, requete, "Chambre non trouvée");
+            }
+            if (!chambre.getHotel().getId().equals(hotelId)) {
+                return rejeter(resultats, i, requete, "Cette chambre n'appartient pas à cet hôtel");
+            }
+            if (requete.getClientId() != null) {
+                Client client = clientsParId.get(requete.getClientId());
+                if (client == null || !client.getHotel().getId().equals(hotelId)) {
+                    return rejeter(resultats, i, requete, "Client non trouvé");
+                }
+                return false;
+            }
+            Client homonyme = clientsParEmail.get(texte(requete.getNewClient(), ClientDto::getEmail));
+            if (homonyme != null && !homonyme.getHotel().getId().equals(hotelId)) {
+                return rejeter(resultats, i, requete, "Un client avec cet email existe déjà");
+            }
+            return false;
+        });
+
+        // ─── Idempotence sur referenceExterne ─────────────────────────────────
+
+        Set<String> references = valeurs(requetes, enCours, ImportReservationService::reference);
+        Map<String, Reservation> existantes = references.isEmpty() ? Map.of()
+                : reservationRepository.findByHotelAndReferenceExterneIn(hotel, references).stream()
+                .collect(Collectors.toMap(Reservation::getReferenceExterne, Function.identity(), (a, b) -> a));
+
+        Set<String> vues = new HashSet<>();
+        enCours.removeIf(i -> {
+            String reference = reference(requetes.get(i));
+            if (reference == null) {
+                return false;
+            }
+            Reservation existante = existantes.get(reference);
+            if (existante != null) {
+                resultats[i] = new ResultatImportReservation(i, reference, Statut.EXISTANTE,
+                        existante.getId(), existante.getNumeroReservation(), "Réservation déjà importée");
+                return true;
+            }
+            if (!vues.add(reference)) {
+                return rejeter(resultats, i, requetes.get(i), "Référence externe en double dans le lot");
+            }
+            return false;
+        });
+
+        // ─── Conflits (une requête pour toutes les chambres du lot) ──────────
+
+        Map<Long, List<Periode>> occupations = occupations(requetes, enCours);
+        enCours.removeIf(i -> {
+            CreateReservationRequest requete = requetes.get(i);
+            List<Periode> periodes = occupations.computeIfAbsent(requete.getChambreId(), id -> new ArrayList<>());
+            if (periodes.stream().anyMatch(p -> p.chevauche(requete.getDateArrivee(), requete.getDateDepart()))) {
+                return rejeter(resultats, i, requete, "La chambre n'est pas disponible pour cette période");
+            }
+            // Les éléments acceptés comptent pour les suivants du même lot
+            periodes.add(new Periode(requete.getDateArrivee(), requete.getDateDepart()));
+            return false;
+        });
+
+        // ─── Écriture par lots ────────────────────────────────────────────────
+
+        User createur = userId != null ? userRepository.findById(userId).orElse(null) : null;
+        List<Client> nouveauxClients = new ArrayList<>();
+        List<Reservation> reservations = new ArrayList<>();
+        for (Integer i : enCours) {
+            CreateReservationRequest requete = requetes.get(i);
+            Client client = requete.getClientId() != null
+                    ? clientsParId.get(requete.getClientId())
+                    : client(hotel, requete.getNewClient(), clientsParEmail, clientsParTelephone, nouveauxClients);
+            Reservation reservation = reservationService.nouvelleReservation(
+                    hotel, chambres.get(requete.getChambreId()), client, requete);
+            reservation.setCreatedBy(createur);
+            reservations.add(reservation);
+        }
+        clientRepository.saveAll(nouveauxClients);
+        // Flush immédiat : une référence importée en parallèle lève ici DataIntegrityViolationException
+        // (rejouée par importer), et non plus loin comme un conflit de nuits occupées
+        reservationRepository.saveAllAndFlush(reservations);
+        occupationChambreService.occuperTous(reservations);
+
+        // Statut des chambres comme en création unitaire : occupée si une arrivée a lieu aujourd'hui
+        LocalDate aujourdhui = LocalDate.now();
+        Map<Long, Chambre> chambresReservees = new HashMap<>();
+        Set<Long> arriveesDuJour = new HashSet<>();
+        for (Reservation reservation : reservations) {
+            Chambre chambre = reservation.getChambre();
+            chambresReservees.put(chambre.getId(), chambre);
+            if (reservation.getDateArrivee().equals(aujourdhui)) {
+                arriveesDuJour.add(chambre.getId());
+            }
+            disponibiliteIndex.reserver(hotelId, chambre.getId(), reservation.getId(),
+                    reservation.getDateArrivee(), reservation.getDateDepart());
+        }
+        chambresReservees.values().forEach(chambre -> chambre.setStatut(
+                arriveesDuJour.contains(chambre.getId()) ? StatutChambre.OCCUPEE : StatutChambre.RESERVEE));
+        chambreRepository.saveAll(chambresReservees.values());
+
+        for (int n = 0; n < enCours.size(); n++) {
+            int i = enCours.get(n);
+            CreateReservationRequest requete = requetes.get(i);
+            Reservation reservation = reservations.get(n);
+            if (requete.getMontantPaye() != null && requete.getMontantPaye().compareTo(BigDecimal.ZERO) > 0) {
+                transactionHelper.enregistrerPaiementReservation(
+                        hotelId, reservation.getId(), reservation.getNumeroReservation(),
+                        reservation.getClient().getNom() + " " + reservation.getClient().getPrenom(),
+                        requete.getMontantPaye(), requete.getModePaiement());
+            }
+            resultats[i] = new ResultatImportReservation(i, reference(requete), Statut.CREEE,
+                    reservation.getId(), reservation.getNumeroReservation(), null);
+        }
+        return Arrays.asList(resultats);
+    }
+
+    // ─── Étapes ───────────────────────────────────────────────────────────────
+
+    /** Validation unitaire (contraintes du DTO et règles de createReservation). Renvoie les index valides. */
+    private List<Integer> valider(List<CreateReservationRequest> requetes, ResultatImportReservation[] resultats) {
+        List<Integer> valides = new ArrayList<>();
+        for (int i = 0; i < requetes.size(); i++) {
+            CreateReservationRequest requete = requetes.get(i);
+            if (requete == null) {
+                rejeter(resultats, i, null, "Élément vide");
+                continue;
+            }
+            Set<ConstraintViolation<CreateReservationRequest>> violations = validator.validate(requete);
+            if (!violations.isEmpty()) {
+                rejeter(resultats, i, requete, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            } else if (requete.getDateArrivee().isAfter(requete.getDateDepart())) {
+                rejeter(resultats, i, requete, "La date d'arrivée doit être avant la date de départ");
+            } else if (requete.getClientId() == null && requete.getNewClient() == null) {
+                rejeter(resultats, i, requete, "Client requis");
+            } else {
+                valides.add(i);
+            }
+        }
+        return valides;
+    }
+
+    /** Réservations actives des chambres du lot, groupées par chambre, en une seule requête. */
+    private Map<Long, List<Periode>> occupations(List<CreateReservationRequest> requetes, List<Integer> enCours) {
+        Map<Long, List<Periode>> occupations = new HashMap<>();
+        if (enCours.isEmpty()) {
+            return occupations;
+        }
+        LocalDate debut = enCours.stream().map(i -> requetes.get(i).getDateArrivee())
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate fin = enCours.stream().map(i -> requetes.get(i).getDateDepart())
+                .max(Comparator.naturalOrder()).orElseThrow();
+        reservationRepository.findOccupationsByChambresAndPeriode(
+                        valeurs(requetes, enCours, CreateReservationRequest::getChambreId), debut, fin)
+                .forEach(o -> occupations.computeIfAbsent(o.getChambreId(), id -> new ArrayList<>())
+                        .add(new Periode(o.getDateArrivee(), o.getDateDepart())));
+        return occupations;
+    }
+
+    /** Client existant de même email ou téléphone, sinon nouveau client partagé par les éléments du lot. */
+    private Client client(Hotel hotel, ClientDto dto,
+                          Map<String, Client> parEmail, Map<String, Client> parTelephone,
+                          List<Client> nouveaux) {
+        String email = texte(dto, ClientDto::getEmail);
+        String telephone = texte(dto, ClientDto::getTelephone);
+        Client client = email != null ? parEmail.get(email) : null;
+        if (client == null && telephone != null) {
+            client = parTelephone.get(telephone);
+        }
+        if (client == null) {
+            client = clientService.nouveauClient(hotel, dto);
+            nouveaux.add(client);
+        }
+        if (email != null) {
+            parEmail.putIfAbsent(email, client);
+        }
+        if (telephone != null) {
+            parTelephone.putIfAbsent(telephone, client);
+        }
+        return client;
+    }
+
+    // ─── Utilitaires ──────────────────────────────────────────────────────────
+
+    private static boolean rejeter(ResultatImportReservation[] resultats, int index,
+                                   CreateReservationRequest requete, String message) {
+        resultats[index] = new ResultatImportReservation(index,
+                requete != null ? reference(requete) : null, Statut.REJETEE, null, null, message);
+        return true;
+    }
+
+    private static <T> Set<T> valeurs(List<CreateReservationRequest> requetes, List<Integer> index,
+                                      Function<CreateReservationRequest, T> extracteur) {
+        return index.stream()
+                .map(i -> extracteur.apply(requetes.get(i)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static String reference(CreateReservationRequest requete) {
+        return ReservationService.referenceExterne(requete.getReferenceExterne());
+    }
+
+    private static String texte(ClientDto dto, Function<ClientDto, String> champ) {
+        String valeur = dto != null ? champ.apply(dto) : null;
+        return valeur != null && !valeur.isBlank() ? valeur : null;
+    }
+
+    /** Période occupée, bornes incluses (même règle que findReservationsByChambreAndPeriode). */
+    private record Periode(LocalDate arrivee, LocalDate depart) {
+        boolean chevauche(LocalDate debut, LocalDate fin) {
+            return !arrivee.isAfter(fin) && !depart.isBefore(debut);
+        }
+    }
+}
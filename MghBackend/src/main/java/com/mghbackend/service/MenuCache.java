@@ -0,0 +1,85 @@
+package com.mghbackend.service;
+
+import com.mghbackend.dto.ProduitDto;
+import com.mghbackend.enums.TypeProduit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Instantanés du menu restaurant (produits disponibles), par hôtel.
+ *
+ * Chaque hôtel a une version courante, qui change à chaque modification du menu
+ * (création ou suppression de produit, bascule de disponibilité) ; l'instantané est
+ * reconstruit à la première lecture qui suit. La version sert d'ETag : une tablette qui
+ * présente la version courante reçoit 304 sans aucun accès à la base.
+ *
+ * Les versions croissent strictement, y compris d'un redémarrage à l'autre (origine : heure
+ * de démarrage). La durée de vie force une nouvelle version, filet de sécurité pour les
+ * modifications faites par une autre instance. Les quantités en stock du menu sont celles
+ * de la construction de l'instantané.
+ */
+@Component
+public class MenuCache {
+
+    public record Instantane(Long hotelId, long version, List<ProduitDto> produits) {
+
+        public List<ProduitDto> parType(TypeProduit type) {
+            return produits.stream().filter(p -> p.getTypeProduit() == type).toList();
+        }
+    }
+
+    private record Version(long numero, long attribueeLe) {
+    }
+
+    private final AtomicLong compteur = new AtomicLong(System.currentTimeMillis());
+    private final Map<Long, Version> versions = new ConcurrentHashMap<>();
+    private final Map<Long, Instantane> menus = new ConcurrentHashMap<>();
+    private final long dureeVieMs;
+
+    public MenuCache(@Value("${restaurant.menu-cache.ttl-secondes:300}") long ttlSecondes) {
+        this.dureeVieMs = Duration.ofSeconds(ttlSecondes).toMillis();
+    }
+
+    /** Version courante du menu de l'hôtel, sans accès à la base. */
+    public long version(Long hotelId) {
+        long maintenant = System.currentTimeMillis();
+        return versions.compute(hotelId, (id, v) -> v == null || maintenant - v.attribueeLe() > dureeVieMs
+                ? new Version(compteur.incrementAndGet(), maintenant)
+                : v).numero();
+    }
+
+    /**
+     * Instantané de la version courante, construit par le chargeur s'il n'existe pas encore.
+     * La version est lue avant le chargement : si le menu change pendant la lecture en base,
+     * l'instantané porte l'ancienne version et sera reconstruit à la lecture suivante.
+     */
+    public Instantane menu(Long hotelId, Function<Long, List<ProduitDto>> chargeur) {
+        long version = version(hotelId);
+        Instantane courant = menus.get(hotelId);
+        if (courant != null && courant.version() == version) {
+            return courant;
+        }
+        Instantane nouveau = new Instantane(hotelId, version, List.copyOf(chargeur.apply(hotelId)));
+        menus.merge(hotelId, nouveau, (ancien, n) -> ancien.version() > n.version() ? ancien : n);
+        return nouveau;
+    }
+
+    /** Change la version du menu après validation de la transaction courante (immédiatement sinon). */
+    public void invalider(Long hotelId) {
+        AfterCommit.run(() -> {
+            versions.put(hotelId, new Version(compteur.incrementAndGet(), System.currentTimeMillis()));
+            menus.remove(hotelId);
+        });
+    }
+
+    public static String etag(Long hotelId, long version, TypeProduit type) {
+        return "\"menu-" + hotelId + "-" + version + (type != null ? "-" + type : "") + "\"";
+    }
+}
@@ -0,0 +1,76 @@
+package com.mghbackend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Numéros de documents (réservations, commandes, factures) uniques et croissants,
+ * sans aller-retour en base.
+ *
+ * Identifiant 63 bits de type Snowflake :
+ * 41 bits de millisecondes depuis EPOQUE | 10 bits de nœud | 12 bits de séquence,
+ * encodé en 13 caractères base32 Crockford à largeur fixe (ex : RES0HB4D2Q8M01K5).
+ * L'ordre alphabétique des numéros suit donc l'ordre de création.
+ *
+ * Chaque instance de l'application doit avoir son propre numerotation.noeud (0 à 1023).
+ */
+@Service
+public class NumerotationService {
+
+    public static final String PREFIXE_RESERVATION = "RES";
+    public static final String PREFIXE_COMMANDE = "CMD";
+    public static final String PREFIXE_FACTURE = "FAC";
+
+    private static final long EPOQUE = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int BITS_NOEUD = 10;
+    private static final int BITS_SEQUENCE = 12;
+    private static final long MASQUE_SEQUENCE = (1L << BITS_SEQUENCE) - 1;
+    private static final int LONGUEUR = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long noeud;
+
+    /** (millisecondes depuis EPOQUE << BITS_SEQUENCE) | séquence du dernier identifiant émis */
+    private final AtomicLong dernier = new AtomicLong();
+
+    public NumerotationService(@Value("${numerotation.noeud:0}") long noeud) {
+        if (noeud < 0 || noeud >= (1L << BITS_NOEUD)) {
+            throw new IllegalArgumentException("numerotation.noeud doit être compris entre 0 et 1023");
+        }
+        this.noeud = noeud;
+    }
+
+    public String prochainNumero(String prefixe) {
+        long id = prochainId();
+        char[] numero = new char[prefixe.length() + LONGUEUR];
+        prefixe.getChars(0, prefixe.length(), numero, 0);
+        for (int i = numero.length - 1; i >= prefixe.length(); i--) {
+            numero[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(numero);
+    }
+
+    /**
+     * Sans verrou : une boucle CAS sur l'horodatage et la séquence.
+     * Si la séquence déborde dans la milliseconde, ou si l'horloge recule,
+     * on continue à partir du dernier état (+1) : l'unicité et l'ordre sont préservés.
+     */
+    long prochainId() {
+        while (true) {
+            long precedent = dernier.get();
+            long maintenant = System.currentTimeMillis() - EPOQUE;
+            long suivant = maintenant > (precedent >>> BITS_SEQUENCE)
+                    ? maintenant << BITS_SEQUENCE
+                    : precedent + 1;
+            if (dernier.compareAndSet(precedent, suivant)) {
+                return ((suivant >>> BITS_SEQUENCE) << (BITS_NOEUD + BITS_SEQUENCE))
+                        | (noeud << BITS_SEQUENCE)
+                        | (suivant & MASQUE_SEQUENCE);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.mghbackend.service;
+
+import com.mghbackend.entity.OccupationChambre;
+import com.mghbackend.entity.Reservation;
+import com.mghbackend.repository.OccupationChambreRepository;
+import com.mghbackend.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sérialise les écritures de réservation par chambre.
+ *
+ * 1. Verrou en mémoire : un ReentrantLock par « bande » de chambres (chambreId modulo NB_BANDES),
+ *    pris avant la première lecture de la transaction et relâché à sa fin (commit ou rollback).
+ *    Deux réservations sur des chambres différentes ne partagent un verrou que si leurs ids
+ *    sont congrus modulo NB_BANDES.
+ * 2. Garde-fou en base : une ligne OccupationChambre par nuit, avec une clé unique (chambre_id, jour).
+ *    Elle protège aussi contre les écritures venant d'une autre instance de l'application.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OccupationChambreService {
+
+    private static final int NB_BANDES = 1024;
+    private static final long ATTENTE_VERROU_SECONDES = 10;
+
+    private final OccupationChambreRepository occupationChambreRepository;
+    private final ReservationRepository reservationRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ReentrantLock[] verrous = creerVerrous();
+
+    // ─── Verrou par chambre ───────────────────────────────────────────────────
+
+    /**
+     * Prend le verrou de la chambre jusqu'à la fin de la transaction courante.
+     * Doit être appelé dans une transaction, avant sa première lecture : sous REPEATABLE READ,
+     * une lecture faite avant l'attente fixerait un instantané qui ignore la réservation
+     * validée par le détenteur du verrou. Sinon, le contrôle des conflits doit être une
+     * lecture verrouillante (FOR UPDATE).
+     */
+    public void verrouiller(Long chambreId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Le verrou de chambre doit être pris dans une transaction");
+        }
+        verrouillerBande(bande(chambreId));
+    }
+
+    /**
+     * Prend les verrous de plusieurs chambres (import groupé) jusqu'à la fin de la transaction.
+     * Les bandes sont prises dans l'ordre croissant : deux lots qui partagent des chambres
+     * ne peuvent pas s'interbloquer.
+     */
+    public void verrouillerTous(Collection<Long> chambreIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Le verrou de chambre doit être pris dans une transaction");
+        }
+        chambreIds.stream()
+                .map(OccupationChambreService::bande)
+                .distinct()
+                .sorted()
+                .forEach(this::verrouillerBande);
+    }
+
+    private static int bande(Long chambreId) {
+        return (int) Math.floorMod(chambreId, (long) NB_BANDES);
+    }
+
+    private void verrouillerBande(int bande) {
+        ReentrantLock verrou = verrous[bande];
+        try {
+            if (!verrou.tryLock(ATTENTE_VERROU_SECONDES, TimeUnit.SECONDS)) {
+                throw new RuntimeException("La chambre est en cours de réservation, veuillez réessayer");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Réservation interrompue");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                verrou.unlock();
+            }
+        });
+    }
+
+    // ─── Nuits occupées ───────────────────────────────────────────────────────
+
+    /**
+     * Enregistre les nuits de la réservation (arrivée et départ inclus, comme la règle de conflit).
+     * Une violation de la clé unique signifie qu'une autre réservation a pris la chambre entre-temps.
+     */
+    @Transactional
+    public void occuper(Reservation reservation) {
+        occuperTous(List.of(reservation));
+    }
+
+    /** Nuits de plusieurs réservations, écrites en un seul lot. */
+    @Transactional
+    public void occuperTous(List<Reservation> reservations) {
+        List<OccupationChambre> nuits = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            for (LocalDate jour = reservation.getDateArrivee();
+                 !jour.isAfter(reservation.getDateDepart()); jour = jour.plusDays(1)) {
+                nuits.add(new OccupationChambre(reservation.getChambre().getId(), jour, reservation.getId()));
+            }
+        }
+        try {
+            occupationChambreRepository.saveAllAndFlush(nuits);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("La chambre n'est pas disponible pour cette période");
+        }
+    }
+
+    /** Remplace les nuits occupées après un changement de dates. */
+    @Transactional
+    public void deplacer(Reservation reservation) {
+        occupationChambreRepository.deleteByReservationId(reservation.getId());
+        occuper(reservation);
+    }
+
+    /** Libère les nuits (annulation, check-out). */
+    @Transactional
+    public void liberer(Long reservationId) {
+        occupationChambreRepository.deleteByReservationId(reservationId);
+    }
+
+    // ─── Reprise des réservations existantes ──────────────────────────────────
+
+    /** Crée les nuits des réservations actives antérieures à la table occupations_chambre. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reprendreReservationsExistantes() {
+        Set<Long> dejaOccupees = new HashSet<>(occupationChambreRepository.findReservationIds());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int reprises = 0;
+        for (ReservationRepository.OccupationView o : reservationRepository.findOccupationsActives()) {
+            if (dejaOccupees.contains(o.getId())) {
+                continue;
+            }
+            try {
+                transaction.executeWithoutResult(status -> {
+                    List<OccupationChambre> nuits = new ArrayList<>();
+                    for (LocalDate jour = o.getDateArrivee(); !jour.isAfter(o.getDateDepart()); jour = jour.plusDays(1)) {
+                        nuits.add(new OccupationChambre(o.getChambreId(), jour, o.getId()));
+                    }
+                    occupationChambreRepository.saveAllAndFlush(nuits);
+                });
+                reprises++;
+            } catch (DataIntegrityViolationException e) {
+                log.warn("⚠️ Réservation {} en conflit avec une autre sur la chambre {} : nuits non reprises",
+                        o.getId(), o.getChambreId());
+            }
+        }
+        if (reprises > 0) {
+            log.info("🛏️ Nuits occupées reprises pour {} réservation(s) existante(s)", reprises);
+        }
+    }
+
+    private static ReentrantLock[] creerVerrous() {
+        ReentrantLock[] verrous = new ReentrantLock[NB_BANDES];
+        for (int i = 0; i < NB_BANDES; i++) {
+            verrous[i] = new ReentrantLock();
+        }
+        return verrous;
+    }
+}
@@ -0,0 +1,82 @@
+package com.mghbackend.service;
+
+import com.mghbackend.dto.reponse.PageCurseur;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pagination par curseur (keyset) des listes par hôtel.
+ *
+ * Les listes sont triées par (date DESC, id DESC) ; le curseur encode en base64url
+ * la date et l'id du dernier élément renvoyé. La page suivante est lue par
+ * « date < d OR (date = d AND id < i) » sur un index (hotel_id, date, id) :
+ * son coût ne dépend pas de la profondeur dans l'historique, contrairement à un OFFSET.
+ */
+public final class Pagination {
+
+    public static final int TAILLE_DEFAUT = 50;
+    public static final int TAILLE_MAX = 200;
+
+    private Pagination() {
+    }
+
+    /** Position décodée d'un curseur. */
+    public record Curseur(LocalDateTime date, Long id) {
+    }
+
+    public static int taille(Integer demandee) {
+        if (demandee == null || demandee <= 0) {
+            return TAILLE_DEFAUT;
+        }
+        return Math.min(demandee, TAILLE_MAX);
+    }
+
+    /** Une ligne de plus que la taille demandée, pour savoir s'il existe une page suivante. */
+    public static Pageable limite(int taille) {
+        return PageRequest.of(0, taille + 1);
+    }
+
+    public static Curseur decoder(String curseur) {
+        if (curseur == null || curseur.isBlank()) {
+            return null;
+        }
+        try {
+            String valeur = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+            int separateur = valeur.lastIndexOf('|');
+            return new Curseur(LocalDateTime.parse(valeur.substring(0, separateur)),
+                    Long.parseLong(valeur.substring(separateur + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Curseur de pagination invalide");
+        }
+    }
+
+    public static String encoder(LocalDateTime date, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Construit la page à partir des lignes lues avec limite(taille) :
+     * la ligne excédentaire éventuelle est retirée et sert à décider du curseur suivant.
+     */
+    public static <E, D> PageCurseur<D> page(List<E> lignes, int taille,
+                                            Function<E, LocalDateTime> date,
+                                            Function<E, Long> id,
+                                            Function<E, D> conversion) {
+        boolean suite = lignes.size() > taille;
+        List<E> courantes = suite ? lignes.subList(0, taille) : lignes;
+        String suivant = null;
+        if (suite) {
+            E derniere = courantes.get(courantes.size() - 1);
+            suivant = encoder(date.apply(derniere), id.apply(derniere));
+        }
+        return new PageCurseur<>(courantes.stream().map(conversion).collect(Collectors.toList()), suivant);
+    }
+}
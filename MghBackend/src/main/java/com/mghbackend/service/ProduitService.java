@@ -2,17 +2,20 @@ package com.mghbackend.service;
 
 import com.mghbackend.dto.MouvementStockDto;
 import com.mghbackend.dto.ProduitDto;
+import com.mghbackend.dto.reponse.PageCurseur;
 import com.mghbackend.entity.*;
 import com.mghbackend.enums.TypeMouvement;
 import com.mghbackend.enums.TypeProduit;
 import com.mghbackend.repository.*;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +29,8 @@ public class ProduitService {
     private final MouvementStockRepository mouvementStockRepository;
     private final UserRepository userRepository;
     private final LigneCommandeRepository ligneCommandeRepository;
+    private final EntityManager entityManager;
+    private final MenuCache menuCache;
 
     // ─────────────────────────────────────────────────────────────
     // CRUD
@@ -58,7 +63,9 @@ public class ProduitService {
             produit.setFournisseur(fournisseur);
         }
 
-        return convertToDto(produitRepository.save(produit));
+        produit = produitRepository.save(produit);
+        menuCache.invalider(hotelId);
+        return convertToDto(produit);
     }
 
     @Transactional(readOnly = true)
@@ -89,12 +96,7 @@ public class ProduitService {
      */
     @Transactional(readOnly = true)
     public List<ProduitDto> getMenuParType(Long hotelId, TypeProduit typeProduit) {
-        Hotel hotel = hotelRepository.findById(hotelId)
-                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
-        return produitRepository
-                .findByHotelAndTypeProduitAndDisponibleTrue(hotel, typeProduit).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return getMenu(hotelId).parType(typeProduit);
     }
 
     /**
@@ -102,6 +104,25 @@ public class ProduitService {
      */
     @Transactional(readOnly = true)
     public List<ProduitDto> getMenuComplet(Long hotelId) {
+        return getMenu(hotelId).produits();
+    }
+
+    /**
+     * Instantané versionné du menu (voir {@link MenuCache}) : la base n'est relue
+     * qu'après une modification du menu.
+     */
+    @Transactional(readOnly = true)
+    public MenuCache.Instantane getMenu(Long hotelId) {
+        return menuCache.menu(hotelId, this::chargerMenu);
+    }
+
+    /** Version courante du menu, pour les requêtes conditionnelles (ETag) : aucun accès à la base. */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long getVersionMenu(Long hotelId) {
+        return menuCache.version(hotelId);
+    }
+
+    private List<ProduitDto> chargerMenu(Long hotelId) {
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
         return produitRepository.findByHotelAndDisponibleTrue(hotel).stream()
@@ -115,10 +136,102 @@ public class ProduitService {
 
     public void ajusterStock(Long produitId, BigDecimal quantite,
                              TypeMouvement type, String motif, Long userId) {
+        if (type == TypeMouvement.SORTIE) {
+            decrementerStock(produitId, quantite, motif, userId);
+        } else {
+            ajusterStocks(Map.of(produitId, quantite), type, motif, userId);
+        }
+    }
 
-        Produit produit = produitRepository.findById(produitId)
-                .orElseThrow(() -> new RuntimeException("Produit non trouvé"));
+    /**
+     * Sortie de stock sans lecture préalable : un UPDATE conditionnel vérifie le stock,
+     * décrémente et bascule la disponibilité d'un seul coup. Deux ventes concurrentes du même
+     * produit (bar, restaurant) ne peuvent ni survendre ni perdre une décrémentation.
+     */
+    public void decrementerStock(Long produitId, BigDecimal quantite, String motif, Long userId) {
+        if (produitRepository.decrementerStock(produitId, quantite) == 0) {
+            Produit produit = produitRepository.findById(produitId)
+                    .orElseThrow(() -> new RuntimeException("Produit non trouvé"));
+            throw new RuntimeException("Stock insuffisant pour le produit : " + produit.getNom());
+        }
+
+        // Relu après l'UPDATE : une instance déjà chargée porterait l'ancien stock et l'écraserait au flush
+        Produit produit = produitRepository.getReferenceById(produitId);
+        entityManager.refresh(produit);
+        // Seule une sortie qui épuise le stock peut faire basculer la disponibilité
+        if (produit.getQuantiteStock().compareTo(BigDecimal.ZERO) <= 0) {
+            menuCache.invalider(produit.getHotel().getId());
+        }
 
+        User user = userId != null ? userRepository.findById(userId).orElse(null) : null;
+        mouvementStockRepository.save(mouvement(produit, quantite, TypeMouvement.SORTIE, motif, user));
+    }
+
+    /**
+     * Applique les mouvements de plusieurs produits (quantité par produit) en une fois :
+     * les produits sont verrouillés par un seul SELECT ... FOR UPDATE, les stocks calculés
+     * en mémoire, puis produits et mouvements écrits par lots au flush.
+     * Tous les mouvements réussissent ou aucun (stock insuffisant → exception).
+     */
+    public Map<Long, Produit> ajusterStocks(Map<Long, BigDecimal> quantites,
+                                            TypeMouvement type, String motif, Long userId) {
+        Map<Long, Produit> produits = verrouillerProduits(quantites.keySet());
+        ajusterStocks(produits, quantites, type, motif, userId);
+        return produits;
+    }
+
+    /**
+     * Verrouille les produits jusqu'à la fin de la transaction, pour vérifier puis ajuster
+     * leur stock sans qu'une autre commande ne s'intercale.
+     */
+    public Map<Long, Produit> verrouillerProduits(Collection<Long> produitIds) {
+        Map<Long, Produit> produits = new LinkedHashMap<>();
+        if (produitIds.isEmpty()) {
+            return produits;
+        }
+        produitRepository.findAllForUpdate(produitIds).forEach(p -> produits.put(p.getId(), p));
+        for (Long id : produitIds) {
+            if (!produits.containsKey(id)) {
+                throw new RuntimeException("Produit non trouvé : id=" + id);
+            }
+        }
+        return produits;
+    }
+
+    /** Variante pour des produits déjà verrouillés par {@link #verrouillerProduits}. */
+    public void ajusterStocks(Map<Long, Produit> produits, Map<Long, BigDecimal> quantites,
+                              TypeMouvement type, String motif, Long userId) {
+        User user = userId != null ? userRepository.findById(userId).orElse(null) : null;
+
+        List<MouvementStock> mouvements = new ArrayList<>();
+        quantites.forEach((produitId, quantite) -> {
+            Produit produit = produits.get(produitId);
+            Boolean disponible = produit.getDisponible();
+            appliquer(produit, quantite, type);
+            if (!Objects.equals(disponible, produit.getDisponible())) {
+                menuCache.invalider(produit.getHotel().getId());
+            }
+            mouvements.add(mouvement(produit, quantite, type, motif, user));
+        });
+
+        // Produits gérés : les UPDATE partent au flush, groupés (order_updates)
+        produitRepository.saveAll(produits.values());
+        mouvementStockRepository.saveAll(mouvements);
+    }
+
+    private MouvementStock mouvement(Produit produit, BigDecimal quantite,
+                                     TypeMouvement type, String motif, User user) {
+        MouvementStock mouvement = new MouvementStock();
+        mouvement.setProduit(produit);
+        mouvement.setType(type);
+        mouvement.setQuantite(quantite);
+        mouvement.setMotif(motif);
+        mouvement.setHotel(produit.getHotel());
+        mouvement.setUser(user);
+        return mouvement;
+    }
+
+    private void appliquer(Produit produit, BigDecimal quantite, TypeMouvement type) {
         switch (type) {
             case ENTREE:
                 produit.setQuantiteStock(produit.getQuantiteStock().add(quantite));
@@ -149,22 +262,6 @@ public class ProduitService {
                 produit.setDisponible(true);
                 break;
         }
-
-        produitRepository.save(produit);
-
-        // Enregistrement du mouvement
-        MouvementStock mouvement = new MouvementStock();
-        mouvement.setProduit(produit);
-        mouvement.setType(type);
-        mouvement.setQuantite(quantite);
-        mouvement.setMotif(motif);
-        mouvement.setHotel(produit.getHotel());
-
-        if (userId != null) {
-            userRepository.findById(userId).ifPresent(mouvement::setUser);
-        }
-
-        mouvementStockRepository.save(mouvement);
     }
 
     /**
@@ -225,6 +322,19 @@ public class ProduitService {
                 .collect(Collectors.toList());
     }
 
+    /** Variante paginée par curseur (plus récents d'abord). */
+    @Transactional(readOnly = true)
+    public PageCurseur<MouvementStockDto> getHistoriqueByHotel(Long hotelId, String curseur, Integer taille) {
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
+        int n = Pagination.taille(taille);
+        Pagination.Curseur position = Pagination.decoder(curseur);
+        List<MouvementStock> lignes = position == null
+                ? mouvementStockRepository.findByHotelOrderByDateMouvementDescIdDesc(hotel, Pagination.limite(n))
+                : mouvementStockRepository.findPageByHotelApres(hotel, position.date(), position.id(), Pagination.limite(n));
+        return Pagination.page(lignes, n, MouvementStock::getDateMouvement, MouvementStock::getId, this::convertMouvementToDto);
+    }
+
     /**
      * Retourne l'historique des mouvements pour un produit spécifique.
      */
@@ -279,5 +389,6 @@ public class ProduitService {
 
         // 3. Supprimer le produit
         produitRepository.delete(produit);
+        menuCache.invalider(produit.getHotel().getId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.mghbackend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recherche plein texte des réservations et des clients : index FULLTEXT MySQL avec le
+ * parseur ngram, qui découpe les valeurs en n-grammes (2 caractères par défaut) et retrouve
+ * donc une sous-chaîne n'importe où dans le mot, comme le LIKE '%mot%' qu'il remplace, mais
+ * par l'index et avec un score de pertinence.
+ *
+ * Les index sont créés au démarrage s'ils manquent (ddl-auto ne sait pas les déclarer ; le
+ * bean dépend de l'EntityManagerFactory, donc des tables à jour), puis tenus à jour par InnoDB
+ * à chaque validation de transaction. Si la création échoue (base autre que MySQL, droits
+ * insuffisants), ou si le mot-clé est plus court qu'un n-gramme, les services repassent par
+ * les requêtes LIKE.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class RechercheTexteIntegral {
+
+    private static final String[][] INDEX = {
+            {"reservations", "ft_reservation_recherche", "numero_reservation, reference_externe"},
+            {"clients", "ft_client_recherche", "nom, prenom, telephone, email, piece_identite"},
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean disponible;
+    private int tailleNgramme = 2;
+
+    @PostConstruct
+    void creerIndex() {
+        try {
+            Integer taille = jdbcTemplate.queryForObject("SELECT @@ngram_token_size", Integer.class);
+            tailleNgramme = taille != null ? taille : tailleNgramme;
+            for (String[] index : INDEX) {
+                creerIndex(index[0], index[1], index[2]);
+            }
+            disponible = true;
+        } catch (DataAccessException e) {
+            log.warn("⚠️ Index plein texte indisponibles, recherche par LIKE : {}", e.getMessage());
+        }
+    }
+
+    private void creerIndex(String table, String nom, String colonnes) {
+        Integer existe = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                        "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?",
+                Integer.class, table, nom);
+        if (existe != null && existe > 0) {
+            return;
+        }
+        // Sans mots vides : la liste par défaut ("a", "i"...) écarterait tout n-gramme qui en contient un
+        jdbcTemplate.execute((ConnectionCallback<Void>) connexion -> {
+            try (Statement instruction = connexion.createStatement()) {
+                instruction.execute("SET SESSION innodb_ft_enable_stopword = OFF");
+                try {
+                    instruction.execute("ALTER TABLE " + table + " ADD FULLTEXT INDEX " + nom +
+                            " (" + colonnes + ") WITH PARSER ngram");
+                } finally {
+                    instruction.execute("SET SESSION innodb_ft_enable_stopword = ON");
+                }
+            }
+            return null;
+        });
+        log.info("🔎 Index plein texte {} créé sur {} ({})", nom, table, colonnes);
+    }
+
+    /**
+     * Expression de recherche (mode booléen) pour un mot-clé, ou null si l'index ne peut pas
+     * servir : index absents, ou mot-clé plus court qu'un n-gramme.
+     * Le mot-clé est cherché comme une phrase : ses n-grammes doivent se suivre.
+     */
+    public String expression(String keyword) {
+        if (!disponible || keyword == null) {
+            return null;
+        }
+        String terme = keyword.replace("\"", " ").trim();
+        if (terme.length() < tailleNgramme) {
+            return null;
+        }
+        return "\"" + terme + "\"";
+    }
+
+    /** Remet les entités chargées par id dans l'ordre de pertinence renvoyé par la recherche. */
+    public static <T> List<T> dansLOrdre(List<Long> ids, List<T> entites, Function<T, Long> id) {
+        Map<Long, T> parId = entites.stream().collect(Collectors.toMap(id, Function.identity()));
+        return ids.stream().map(parId::get).filter(Objects::nonNull).toList();
+    }
+}
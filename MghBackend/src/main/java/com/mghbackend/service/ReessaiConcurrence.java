@@ -0,0 +1,78 @@
+package com.mghbackend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Rejoue une opération métier dont la transaction échoue sur un conflit de version (@Version).
+ * Chaque tentative repart d'une transaction neuve, donc de données relues : l'opération
+ * doit être appelée hors transaction (depuis un contrôleur). Dans une transaction englobante,
+ * seul l'appelant peut rejouer : l'opération est alors exécutée une fois, sans réessai.
+ *
+ * Métriques par opération : mgh.concurrence.operations, .conflits, .reessais, .echecs
+ * (taux de conflit = conflits / operations).
+ */
+@Component
+@Slf4j
+public class ReessaiConcurrence {
+
+    private final MeterRegistry meterRegistry;
+    private final EntityManager entityManager;
+    private final int tentativesMax;
+    private final long delaiMs;
+
+    public ReessaiConcurrence(MeterRegistry meterRegistry,
+                              EntityManager entityManager,
+                              @Value("${concurrence.reessai.tentatives-max:3}") int tentativesMax,
+                              @Value("${concurrence.reessai.delai-ms:20}") long delaiMs) {
+        this.meterRegistry = meterRegistry;
+        this.entityManager = entityManager;
+        this.tentativesMax = tentativesMax;
+        this.delaiMs = delaiMs;
+    }
+
+    public <T> T executer(String operation, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        compter("mgh.concurrence.operations", operation);
+        for (int tentative = 1; ; tentative++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                compter("mgh.concurrence.conflits", operation);
+                if (tentative >= tentativesMax) {
+                    compter("mgh.concurrence.echecs", operation);
+                    log.warn("⚠️ Conflit de version persistant sur {} après {} tentatives", operation, tentative);
+                    throw new RuntimeException("Modification concurrente en cours, veuillez réessayer");
+                }
+                compter("mgh.concurrence.reessais", operation);
+                // Contexte de persistance de la requête (open-in-view) : vidé pour relire les données
+                entityManager.clear();
+                attendre(tentative);
+            }
+        }
+    }
+
+    private void compter(String nom, String operation) {
+        meterRegistry.counter(nom, "operation", operation).increment();
+    }
+
+    /** Attente croissante avec gigue, pour que les opérations en conflit ne se rejouent pas ensemble. */
+    private void attendre(int tentative) {
+        try {
+            Thread.sleep(delaiMs * tentative + ThreadLocalRandom.current().nextLong(delaiMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Opération interrompue");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.mghbackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Year;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Génère les références de transaction TRX-{année}-{hotelId}-{numéro}.
+ *
+ * Schéma hi/lo : chaque instance réserve en base un bloc de TAILLE_BLOC numéros
+ * (ligne sequences_reference verrouillée, dans une transaction séparée et courte),
+ * puis les distribue en mémoire. Une référence coûte donc un incrément en mémoire,
+ * et un aller-retour en base tous les TAILLE_BLOC numéros. Les numéros d'un bloc
+ * non consommé avant un redémarrage sont perdus : la numérotation peut avoir des trous.
+ *
+ * Les blocs sont réservés sur un petit pool de connexions dédié (referencesDataSource, voir
+ * DataSourceConfig) : l'appelant tient déjà une connexion du pool principal (sa transaction),
+ * et les autres payeurs du même hôtel attendent le verrou avec la leur. Puisée dans le pool
+ * principal, la connexion de la réservation pourrait ne jamais se libérer sous charge.
+ */
+@Service
+@Slf4j
+public class ReferenceTransactionGenerator {
+
+    static final int TAILLE_BLOC = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate nouvelleTransaction;
+
+    /** Bloc en cours par "hotelId:année" */
+    private final Map<String, Bloc> blocs = new ConcurrentHashMap<>();
+
+    public ReferenceTransactionGenerator(@Qualifier("referencesDataSource") DataSource connexions) {
+        this.jdbcTemplate = new JdbcTemplate(connexions);
+        this.nouvelleTransaction = new TransactionTemplate(new DataSourceTransactionManager(connexions));
+    }
+
+    public String genererReference(Long hotelId) {
+        int annee = Year.now().getValue();
+        long numero = blocs.computeIfAbsent(hotelId + ":" + annee, k -> new Bloc())
+                .suivant(hotelId, annee);
+        return String.format("TRX-%d-%d-%05d", annee, hotelId, numero);
+    }
+
+    /** Réserve en base le prochain bloc [debut, debut + TAILLE_BLOC[ pour cet hôtel et cette année. */
+    private long reserverBloc(Long hotelId, int annee) {
+        Long debut = nouvelleTransaction.execute(status -> {
+            // Sans erreur si un autre thread ou une autre instance a créé le compteur
+            jdbcTemplate.update("INSERT IGNORE INTO sequences_reference (hotel_id, annee, prochaine_valeur) " +
+                    "VALUES (?, ?, 1)", hotelId, annee);
+            Long valeur = jdbcTemplate.queryForObject("SELECT prochaine_valeur FROM sequences_reference " +
+                    "WHERE hotel_id = ? AND annee = ? FOR UPDATE", Long.class, hotelId, annee);
+            if (valeur == null) {
+                throw new RuntimeException("Séquence de référence introuvable");
+            }
+            jdbcTemplate.update("UPDATE sequences_reference SET prochaine_valeur = ? WHERE hotel_id = ? AND annee = ?",
+                    valeur + TAILLE_BLOC, hotelId, annee);
+            return valeur;
+        });
+        log.debug("Bloc de références {}..{} réservé pour l'hôtel {} ({})",
+                debut, debut + TAILLE_BLOC - 1, hotelId, annee);
+        return debut;
+    }
+
+    private final class Bloc {
+
+        private final ReentrantLock verrou = new ReentrantLock();
+        private long prochain;
+        private long fin;
+
+        long suivant(Long hotelId, int annee) {
+            verrou.lock();
+            try {
+                if (prochain >= fin) {
+                    prochain = reserverBloc(hotelId, annee);
+                    fin = prochain + TAILLE_BLOC;
+                }
+                return prochain++;
+            } finally {
+                verrou.unlock();
+            }
+        }
+    }
+}
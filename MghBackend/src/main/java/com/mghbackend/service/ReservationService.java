@@ -4,10 +4,13 @@ import com.mghbackend.dto.ClientDto;
 import com.mghbackend.dto.request.CreateReservationRequest;
 import com.mghbackend.dto.request.UpdateReservationRequest;
 import com.mghbackend.dto.ReservationDto;
+import com.mghbackend.dto.liste.ReservationListView;
+import com.mghbackend.dto.reponse.PageCurseur;
 import com.mghbackend.entity.*;
 import com.mghbackend.enums.*;
 import com.mghbackend.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,7 +18,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,10 +33,19 @@ public class ReservationService {
     private final UserRepository userRepository;
     private final ClientService clientService;
     private final TransactionHelper transactionHelper;
+    private final DisponibiliteIndex disponibiliteIndex;
+    private final OccupationChambreService occupationChambreService;
+    private final NumerotationService numerotationService;
+    private final RechercheTexteIntegral rechercheTexteIntegral;
 
     // ─── Création ─────────────────────────────────────────────────────────────
 
     public ReservationDto createReservation(Long hotelId, CreateReservationRequest request, Long userId) {
+        // Sérialise les réservations de cette chambre jusqu'au commit. Pris avant toute lecture :
+        // sous REPEATABLE READ, l'instantané de la transaction date de sa première lecture, qui
+        // doit suivre l'attente du verrou pour voir la réservation validée par son détenteur
+        occupationChambreService.verrouiller(request.getChambreId());
+
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
 
@@ -67,11 +79,41 @@ public class ReservationService {
             throw new RuntimeException("Client requis");
         }
 
+        Reservation reservation = nouvelleReservation(hotel, chambre, client, request);
+        if (userId != null) {
+            userRepository.findById(userId).ifPresent(reservation::setCreatedBy);
+        }
+
+        chambre.setStatut(request.getDateArrivee().equals(LocalDate.now())
+                ? StatutChambre.OCCUPEE : StatutChambre.RESERVEE);
+        chambreRepository.save(chambre);
+
+        Reservation saved = reservationRepository.save(reservation);
+        occupationChambreService.occuper(saved);
+        disponibiliteIndex.reserver(hotelId, chambre.getId(), saved.getId(),
+                saved.getDateArrivee(), saved.getDateDepart());
+
+        if (request.getMontantPaye() != null && request.getMontantPaye().compareTo(BigDecimal.ZERO) > 0) {
+            transactionHelper.enregistrerPaiementReservation(
+                    hotelId, saved.getId(), saved.getNumeroReservation(),
+                    client.getNom() + " " + client.getPrenom(),
+                    request.getMontantPaye(), request.getModePaiement());
+        }
+        return convertToDto(saved);
+    }
+
+    /** Référence externe vide → null : la contrainte d'unicité (hôtel, référence) ignore les NULL. */
+    static String referenceExterne(String reference) {
+        return reference != null && !reference.isBlank() ? reference : null;
+    }
+
+    /** Nouvelle réservation confirmée (non enregistrée) : montants, statut de paiement, numéro. */
+    Reservation nouvelleReservation(Hotel hotel, Chambre chambre, Client client, CreateReservationRequest request) {
         long nombreNuits = ChronoUnit.DAYS.between(request.getDateArrivee(), request.getDateDepart());
         BigDecimal montantTotal = chambre.getPrixParNuit().multiply(BigDecimal.valueOf(nombreNuits));
 
         Reservation reservation = new Reservation();
-        reservation.setNumeroReservation(generateNumeroReservation());
+        reservation.setNumeroReservation(numerotationService.prochainNumero(NumerotationService.PREFIXE_RESERVATION));
         reservation.setHotel(hotel);
         reservation.setChambre(chambre);
         reservation.setClient(client);
@@ -85,7 +127,7 @@ public class ReservationService {
         reservation.setStatut(StatutReservation.CONFIRMEE);
         reservation.setNotes(request.getNotes());
         reservation.setDemandesSpeciales(request.getDemandesSpeciales());
-        reservation.setReferenceExterne(request.getReferenceExterne());
+        reservation.setReferenceExterne(referenceExterne(request.getReferenceExterne()));
 
         if (request.getMontantPaye() != null && request.getMontantPaye().compareTo(BigDecimal.ZERO) > 0) {
             reservation.setMontantPaye(request.getMontantPaye());
@@ -103,24 +145,7 @@ public class ReservationService {
             reservation.setMontantRestant(montantTotal);
             reservation.setStatutPaiement(StatutPaiement.NON_PAYE);
         }
-
-        if (userId != null) {
-            userRepository.findById(userId).ifPresent(reservation::setCreatedBy);
-        }
-
-        chambre.setStatut(request.getDateArrivee().equals(LocalDate.now())
-                ? StatutChambre.OCCUPEE : StatutChambre.RESERVEE);
-        chambreRepository.save(chambre);
-
-        Reservation saved = reservationRepository.save(reservation);
-
-        if (request.getMontantPaye() != null && request.getMontantPaye().compareTo(BigDecimal.ZERO) > 0) {
-            transactionHelper.enregistrerPaiementReservation(
-                    hotelId, saved.getId(), saved.getNumeroReservation(),
-                    client.getNom() + " " + client.getPrenom(),
-                    request.getMontantPaye(), request.getModePaiement());
-        }
-        return convertToDto(saved);
+        return reservation;
     }
 
     // ─── ✅ NOUVELLE MÉTHODE : Modification complète (dates, voyageurs, notes) ──
@@ -166,7 +191,10 @@ public class ReservationService {
                 || !request.getDateDepart().equals(reservation.getDateDepart());
 
         if (datesChanged) {
-            // On exclut la réservation courante du check de conflit
+            occupationChambreService.verrouiller(reservation.getChambre().getId());
+
+            // On exclut la réservation courante du check de conflit. Lecture verrouillante : la
+            // réservation a été lue avant le verrou, l'instantané peut donc précéder son attente
             List<Reservation> conflits = reservationRepository
                     .findReservationsByChambreAndPeriodeExcluding(
                             reservation.getChambre(),
@@ -227,7 +255,13 @@ public class ReservationService {
         reservation.setStatutPaiement(nouveauStatutPaiement);
         reservation.setNotes(request.getNotes());
         reservation.setDemandesSpeciales(request.getDemandesSpeciales());
-        reservation.setReferenceExterne(request.getReferenceExterne());
+        reservation.setReferenceExterne(referenceExterne(request.getReferenceExterne()));
+
+        if (datesChanged) {
+            occupationChambreService.deplacer(reservation);
+            disponibiliteIndex.reserver(reservation.getHotel().getId(), reservation.getChambre().getId(),
+                    reservation.getId(), reservation.getDateArrivee(), reservation.getDateDepart());
+        }
 
         return convertToDto(reservationRepository.save(reservation));
     }
@@ -254,6 +288,33 @@ public class ReservationService {
                 .map(this::convertToDto).collect(Collectors.toList());
     }
 
+    /** Variante paginée par curseur (plus récents d'abord). */
+    @Transactional(readOnly = true)
+    public PageCurseur<ReservationDto> getReservationsByHotel(Long hotelId, String curseur, Integer taille) {
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
+        int n = Pagination.taille(taille);
+        Pagination.Curseur position = Pagination.decoder(curseur);
+        List<Reservation> lignes = position == null
+                ? reservationRepository.findByHotelOrderByCreatedAtDescIdDesc(hotel, Pagination.limite(n))
+                : reservationRepository.findPageByHotelApres(hotel, position.date(), position.id(), Pagination.limite(n));
+        return Pagination.page(lignes, n, Reservation::getCreatedAt, Reservation::getId, this::convertToDto);
+    }
+
+    /**
+     * Écran liste : lignes projetées par la requête (pas d'entités gérées ni de conversion),
+     * paginées par curseur comme la variante ci-dessus.
+     */
+    @Transactional(readOnly = true)
+    public PageCurseur<ReservationListView> getReservationsListe(Long hotelId, String curseur, Integer taille) {
+        int n = Pagination.taille(taille);
+        Pagination.Curseur position = Pagination.decoder(curseur);
+        List<ReservationListView> lignes = position == null
+                ? reservationRepository.findVuesByHotelId(hotelId, Pagination.limite(n))
+                : reservationRepository.findVuesByHotelIdApres(hotelId, position.date(), position.id(), Pagination.limite(n));
+        return Pagination.page(lignes, n, ReservationListView::getCreatedAt, ReservationListView::getId, Function.identity());
+    }
+
     @Transactional(readOnly = true)
     public List<ReservationDto> getReservationsByHotelAndStatut(Long hotelId, StatutReservation statut) {
         Hotel hotel = hotelRepository.findById(hotelId)
@@ -303,11 +364,18 @@ public class ReservationService {
     }
 
     @Transactional(readOnly = true)
-    public List<ReservationDto> searchReservations(Long hotelId, String keyword) {
+    public List<ReservationDto> searchReservations(Long hotelId, String keyword, Integer taille) {
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new RuntimeException("Hôtel non trouvé"));
-        return reservationRepository.searchByHotelAndKeyword(hotel, keyword).stream()
-                .map(this::convertToDto).collect(Collectors.toList());
+        int n = Pagination.taille(taille);
+        String expression = rechercheTexteIntegral.expression(keyword);
+        if (expression == null) {
+            return reservationRepository.searchByHotelAndKeyword(hotel, keyword, PageRequest.of(0, n)).stream()
+                    .map(this::convertToDto).collect(Collectors.toList());
+        }
+        List<Long> ids = reservationRepository.rechercherIds(hotelId, expression, keyword.trim(), n);
+        return RechercheTexteIntegral.dansLOrdre(ids, reservationRepository.findByIdIn(ids), Reservation::getId)
+                .stream().map(this::convertToDto).collect(Collectors.toList());
     }
 
     // ─── Actions ──────────────────────────────────────────────────────────────
@@ -346,6 +414,8 @@ public class ReservationService {
         Chambre chambre = reservation.getChambre();
         chambre.setStatut(StatutChambre.EN_NETTOYAGE);
         chambreRepository.save(chambre);
+        occupationChambreService.liberer(reservation.getId());
+        disponibiliteIndex.liberer(reservation.getHotel().getId(), chambre.getId(), reservation.getId());
 
         return convertToDto(reservationRepository.save(reservation));
     }
@@ -366,6 +436,8 @@ public class ReservationService {
         chambre.setStatut(StatutChambre.DISPONIBLE);
         chambreRepository.save(chambre);
         reservationRepository.save(reservation);
+        occupationChambreService.liberer(reservation.getId());
+        disponibiliteIndex.liberer(reservation.getHotel().getId(), chambre.getId(), reservation.getId());
     }
 
     public ReservationDto addPaiement(Long id, BigDecimal montant, String modePaiement) {
@@ -400,14 +472,6 @@ public class ReservationService {
 
     // ─── Helpers ──────────────────────────────────────────────────────────────
 
-    private String generateNumeroReservation() {
-        String numero;
-        do {
-            numero = "RES" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        } while (reservationRepository.existsByNumeroReservation(numero));
-        return numero;
-    }
-
     private ReservationDto convertToDto(Reservation reservation) {
         ReservationDto dto = new ReservationDto();
         dto.setId(reservation.getId());
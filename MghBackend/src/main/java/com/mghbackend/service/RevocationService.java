@@ -0,0 +1,199 @@
+package com.mghbackend.service;
+
+import com.mghbackend.repository.JetonRafraichissementRepository;
+import com.mghbackend.repository.RevocationRepository;
+import com.mghbackend.security.JwtClaims;
+import com.mghbackend.security.JwtUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Révocation des jetons d'accès.
+ *
+ * La liste de révocation est en base (table revocations) ; un filtre de Bloom en mémoire
+ * la résume. Un jeton dont ni le jti ni le compte ne sont dans le filtre n'est pas révoqué,
+ * sans requête : c'est le cas de presque toutes les requêtes. Sinon (révocation réelle ou
+ * faux positif), la base tranche.
+ *
+ * Le filtre est reconstruit depuis la base au démarrage puis périodiquement, ce qui y fait
+ * entrer les révocations faites par les autres instances. Les ajouts locaux arrivés pendant
+ * une reconstruction sont journalisés et rejoués avant la bascule.
+ */
+@Service
+@Slf4j
+public class RevocationService {
+
+    private static final String PREFIXE_JTI = "jti:";
+    private static final String PREFIXE_COMPTE = "compte:";
+
+    private final RevocationRepository revocationRepository;
+    private final JetonRafraichissementRepository jetonRafraichissementRepository;
+    private final JwtUtil jwtUtil;
+    private final int capacite;
+    private final double tauxFauxPositifs;
+
+    private final ReentrantReadWriteLock verrou = new ReentrantReadWriteLock();
+    private volatile FiltreBloom filtre;
+    private volatile boolean pret = false;
+    private List<String> journal;
+
+    public RevocationService(RevocationRepository revocationRepository,
+                             JetonRafraichissementRepository jetonRafraichissementRepository,
+                             JwtUtil jwtUtil,
+                             @Value("${securite.revocation.capacite:100000}") int capacite,
+                             @Value("${securite.revocation.taux-faux-positifs:0.001}") double tauxFauxPositifs) {
+        this.revocationRepository = revocationRepository;
+        this.jetonRafraichissementRepository = jetonRafraichissementRepository;
+        this.jwtUtil = jwtUtil;
+        this.capacite = capacite;
+        this.tauxFauxPositifs = tauxFauxPositifs;
+        this.filtre = new FiltreBloom(capacite, tauxFauxPositifs);
+    }
+
+    // ─── Vérification ─────────────────────────────────────────────────────────
+
+    public boolean estRevoque(JwtClaims claims) {
+        if (claims.jti() != null) {
+            String cle = PREFIXE_JTI + claims.jti();
+            if (peutEtreRevoque(cle) && revocationRepository.findByCle(cle).isPresent()) {
+                return true;
+            }
+        }
+        String cle = cleCompte(claims.accountType(), claims.email());
+        if (!peutEtreRevoque(cle)) {
+            return false;
+        }
+        // iat est à la seconde : on compare à la seconde de révocation
+        return revocationRepository.findByCle(cle)
+                .map(r -> claims.issuedAt() == null
+                        || enDate(claims.issuedAt()).isBefore(r.getRevoqueLe().truncatedTo(ChronoUnit.SECONDS)))
+                .orElse(false);
+    }
+
+    private boolean peutEtreRevoque(String cle) {
+        // Tant que le filtre n'est pas chargé, la base est interrogée directement
+        return !pret || filtre.peutContenir(cle);
+    }
+
+    // ─── Révocation ───────────────────────────────────────────────────────────
+
+    /** Révoque un jeton d'accès précis (déconnexion) jusqu'à son expiration. */
+    @Transactional
+    public void revoquerJeton(String jti, Date expiration) {
+        String cle = PREFIXE_JTI + jti;
+        revocationRepository.enregistrer(cle, LocalDateTime.now(), enDate(expiration));
+        ajouter(cle);
+    }
+
+    /**
+     * Révoque tous les jetons du compte émis jusqu'à maintenant (changement de mot de passe,
+     * désactivation), y compris ses jetons de rafraîchissement.
+     */
+    @Transactional
+    public void revoquerCompte(String accountType, String email) {
+        String cle = cleCompte(accountType, email);
+        LocalDateTime maintenant = LocalDateTime.now();
+        revocationRepository.enregistrer(cle, maintenant, maintenant.plus(jwtUtil.getDureeMaxAcces(), ChronoUnit.MILLIS));
+        jetonRafraichissementRepository.revoquerCompte(accountType, email);
+        ajouter(cle);
+    }
+
+    private void ajouter(String cle) {
+        verrou.readLock().lock();
+        try {
+            filtre.ajouter(cle);
+            if (journal != null) {
+                journal.add(cle);
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    // ─── Reconstruction et purge ──────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialiser() {
+        reconstruire();
+    }
+
+    @Scheduled(fixedDelayString = "${securite.revocation.rechargement-ms:30000}",
+            initialDelayString = "${securite.revocation.rechargement-ms:30000}")
+    public void recharger() {
+        reconstruire();
+    }
+
+    public void reconstruire() {
+        verrou.writeLock().lock();
+        try {
+            journal = Collections.synchronizedList(new ArrayList<>());
+        } finally {
+            verrou.writeLock().unlock();
+        }
+
+        FiltreBloom nouveau = new FiltreBloom(capacite, tauxFauxPositifs);
+        int nombre;
+        try {
+            List<String> cles = revocationRepository.findClesActives(LocalDateTime.now());
+            cles.forEach(nouveau::ajouter);
+            nombre = cles.size();
+        } catch (RuntimeException e) {
+            verrou.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                verrou.writeLock().unlock();
+            }
+            log.error("❌ Chargement de la liste de révocation impossible : {}", e.getMessage());
+            return;
+        }
+
+        verrou.writeLock().lock();
+        try {
+            journal.forEach(nouveau::ajouter);
+            journal = null;
+            filtre = nouveau;
+            pret = true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        if (nombre > capacite) {
+            log.warn("⚠️ {} révocations actives pour une capacité de {} : augmenter securite.revocation.capacite",
+                    nombre, capacite);
+        }
+        log.debug("Filtre de révocation rechargé : {} entrées", nombre);
+    }
+
+    @Scheduled(fixedDelayString = "${securite.revocation.purge-ms:3600000}")
+    @Transactional
+    public void purger() {
+        LocalDateTime maintenant = LocalDateTime.now();
+        int revocations = revocationRepository.purger(maintenant);
+        int jetons = jetonRafraichissementRepository.purger(maintenant);
+        if (revocations + jetons > 0) {
+            log.info("🧹 Purge : {} révocations et {} jetons de rafraîchissement expirés supprimés", revocations, jetons);
+        }
+    }
+
+    private static String cleCompte(String accountType, String email) {
+        return PREFIXE_COMPTE + accountType + ":" + email;
+    }
+
+    private static LocalDateTime enDate(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
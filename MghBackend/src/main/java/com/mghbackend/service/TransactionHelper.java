@@ -11,12 +11,15 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.Year;
 
 /**
  * Service helper pour créer automatiquement des transactions financières
  * depuis d'autres modules (réservations, restaurant) sans dépendance circulaire.
  * Utilise directement le repository au lieu du TransactionService.
+ *
+ * La transaction financière est écrite dans la transaction de l'appelant : si elle échoue,
+ * l'erreur remonte et l'opération d'origine est annulée avec elle, plutôt que d'être validée
+ * sans son paiement.
  */
 @Service
 @RequiredArgsConstructor
@@ -24,6 +27,8 @@ import java.time.Year;
 public class TransactionHelper {
 
     private final TransactionRepository transactionRepository;
+    private final FinanceRollupService financeRollupService;
+    private final ReferenceTransactionGenerator referenceTransactionGenerator;
 
     /**
      * Enregistre un paiement de réservation dans le module finance.
@@ -35,34 +40,29 @@ public class TransactionHelper {
                                                String nomClient,
                                                BigDecimal montant,
                                                String modePaiement) {
-        try {
-            Transaction t = new Transaction();
-            t.setHotelId(hotelId);
-            t.setType(TypeTransaction.REVENU);
-            t.setCategorie("Hébergement");
-            t.setMontant(montant);
-            t.setDateTransaction(LocalDateTime.now());
-            t.setDescription("Paiement réservation " + numeroReservation + " – " + nomClient);
-            t.setReservationId(reservationId);
-            t.setNumeroPiece(numeroReservation);
-            t.setStatut(StatutTransaction.VALIDEE);
-            t.setValidePar("Système");
-            t.setDateValidation(LocalDateTime.now());
-            t.setReference(generateRef(hotelId));
-            t.setCreatedByName("Système");
+        Transaction t = new Transaction();
+        t.setHotelId(hotelId);
+        t.setType(TypeTransaction.REVENU);
+        t.setCategorie("Hébergement");
+        t.setMontant(montant);
+        t.setDateTransaction(LocalDateTime.now());
+        t.setDescription("Paiement réservation " + numeroReservation + " – " + nomClient);
+        t.setReservationId(reservationId);
+        t.setNumeroPiece(numeroReservation);
+        t.setStatut(StatutTransaction.VALIDEE);
+        t.setValidePar("Système");
+        t.setDateValidation(LocalDateTime.now());
+        t.setReference(referenceTransactionGenerator.genererReference(hotelId));
+        t.setCreatedByName("Système");
 
-            if (modePaiement != null) {
-                try {
-                    t.setModePaiement(ModePaiementTransaction.valueOf(modePaiement));
-                } catch (IllegalArgumentException ignored) {}
-            }
-
-            transactionRepository.save(t);
-            log.info("✅ Transaction réservation créée : {} – {}F CFA", numeroReservation, montant);
-        } catch (Exception e) {
-            log.warn("⚠️ Impossible de créer transaction réservation {} : {}",
-                    numeroReservation, e.getMessage());
+        if (modePaiement != null) {
+            try {
+                t.setModePaiement(ModePaiementTransaction.valueOf(modePaiement));
+            } catch (IllegalArgumentException ignored) {}
         }
+
+        financeRollupService.ajouter(transactionRepository.save(t));
+        log.info("✅ Transaction réservation créée : {} – {}F CFA", numeroReservation, montant);
     }
 
     /**
@@ -73,35 +73,22 @@ public class TransactionHelper {
                                               Long commandeId,
                                               String numeroCommande,
                                               BigDecimal montant) {
-        try {
-            Transaction t = new Transaction();
-            t.setHotelId(hotelId);
-            t.setType(TypeTransaction.REVENU);
-            t.setCategorie("Restaurant");
-            t.setMontant(montant);
-            t.setDateTransaction(LocalDateTime.now());
-            t.setDescription("Paiement commande restaurant " + numeroCommande);
-            t.setCommandeRestaurantId(commandeId);
-            t.setNumeroPiece(numeroCommande);
-            t.setStatut(StatutTransaction.VALIDEE);
-            t.setValidePar("Système");
-            t.setDateValidation(LocalDateTime.now());
-            t.setReference(generateRef(hotelId));
-            t.setCreatedByName("Système");
+        Transaction t = new Transaction();
+        t.setHotelId(hotelId);
+        t.setType(TypeTransaction.REVENU);
+        t.setCategorie("Restaurant");
+        t.setMontant(montant);
+        t.setDateTransaction(LocalDateTime.now());
+        t.setDescription("Paiement commande restaurant " + numeroCommande);
+        t.setCommandeRestaurantId(commandeId);
+        t.setNumeroPiece(numeroCommande);
+        t.setStatut(StatutTransaction.VALIDEE);
+        t.setValidePar("Système");
+        t.setDateValidation(LocalDateTime.now());
+        t.setReference(referenceTransactionGenerator.genererReference(hotelId));
+        t.setCreatedByName("Système");
 
-            transactionRepository.save(t);
-            log.info("✅ Transaction restaurant créée : {} – {}F CFA", numeroCommande, montant);
-        } catch (Exception e) {
-            log.warn("⚠️ Impossible de créer transaction restaurant {} : {}",
-                    numeroCommande, e.getMessage());
-        }
-    }
-
-    /**
-     * Génère une référence unique de type TRX-{année}-{count}.
-     */
-    private String generateRef(Long hotelId) {
-        long count = transactionRepository.countByHotelId(hotelId) + 1;
-        return String.format("TRX-%d-%05d", Year.now().getValue(), count);
+        financeRollupService.ajouter(transactionRepository.save(t));
+        log.info("✅ Transaction restaurant créée : {} – {}F CFA", numeroCommande, montant);
     }
 }
\ No newline at end of file
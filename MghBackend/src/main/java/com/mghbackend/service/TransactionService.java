@@ -2,8 +2,12 @@ package com.mghbackend.service;
 
 import com.mghbackend.dto.StatistiquesFinanceDto;
 import com.mghbackend.dto.TransactionDto;
+import com.mghbackend.dto.reponse.PageCurseur;
+import com.mghbackend.dto.request.RechercheTransactionRequest;
 import com.mghbackend.enums.TypeTransaction;
 
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface TransactionService {
@@ -12,6 +16,7 @@ public interface TransactionService {
     TransactionDto createTransaction(Long hotelId, TransactionDto dto, Long userId);
     TransactionDto getTransactionById(Long id);
     List<TransactionDto> getTransactionsByHotel(Long hotelId);
+    PageCurseur<TransactionDto> getTransactionsByHotel(Long hotelId, String curseur, Integer taille);
     TransactionDto updateTransaction(Long id, TransactionDto dto);
     void deleteTransaction(Long id);
 
@@ -19,6 +24,9 @@ public interface TransactionService {
     List<TransactionDto> getTransactionsByHotelAndType(Long hotelId, TypeTransaction type);
     List<TransactionDto> getTransactionsEnAttente(Long hotelId);
     List<TransactionDto> searchTransactions(Long hotelId, String keyword);
+    List<TransactionDto> rechercherTransactions(Long hotelId, RechercheTransactionRequest filtre);
+    PageCurseur<TransactionDto> rechercherTransactions(Long hotelId, RechercheTransactionRequest filtre,
+                                                       String curseur, Integer taille);
 
     // Actions métier
     TransactionDto validerTransaction(Long id, String validePar);
@@ -26,7 +34,8 @@ public interface TransactionService {
 
     // Statistiques
     StatistiquesFinanceDto getStatistiques(Long hotelId);
+    int reconstruireAgregats(Long hotelId);
 
     // Export
-    byte[] exportTransactions(Long hotelId, String format, String dateDebut, String dateFin);
+    void exportTransactions(Long hotelId, LocalDate dateDebut, LocalDate dateFin, OutputStream out);
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import com.mghbackend.dto.request.UpdatePasswordRequest;
 import com.mghbackend.entity.*;
 import com.mghbackend.enums.TypePermission;
 import com.mghbackend.repository.*;
+import com.mghbackend.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -24,6 +25,8 @@ public class UserService {
 	private final HotelRepository hotelRepository;
 	private final RoleRepository roleRepository;
 	private final PasswordEncoder passwordEncoder;
+	private final PrincipalCache principalCache;
+	private final RevocationService revocationService;
 
 	public UserDto createUser(Long hotelId, CreateUserRequest request) {
 		Hotel hotel = hotelRepository.findById(hotelId)
@@ -122,6 +125,7 @@ public class UserService {
 			throw new RuntimeException("Un utilisateur avec ce nom d'utilisateur existe déjà");
 		}
 
+		principalCache.invalider("USER", user.getEmail());
 		user.setUsername(userDto.getUsername());
 		user.setEmail(userDto.getEmail());
 		user.setFirstName(userDto.getFirstName());
@@ -143,6 +147,7 @@ public class UserService {
 
 		user.setRoles(roles);
 		userRepository.save(user);
+		principalCache.invalider("USER", user.getEmail());
 	}
 
 	public void changePassword(Long userId, UpdatePasswordRequest request) {
@@ -155,6 +160,8 @@ public class UserService {
 
 		user.setPassword(passwordEncoder.encode(request.getNewPassword()));
 		userRepository.save(user);
+		principalCache.invalider("USER", user.getEmail());
+		revocationService.revoquerCompte("USER", user.getEmail());
 	}
 
 	public void toggleActiveStatus(Long userId) {
@@ -162,6 +169,10 @@ public class UserService {
 				.orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
 		user.setActive(!user.getActive());
 		userRepository.save(user);
+		principalCache.invalider("USER", user.getEmail());
+		if (!user.getActive()) {
+			revocationService.revoquerCompte("USER", user.getEmail());
+		}
 	}
 
 	@Transactional(readOnly = true)
@@ -2,6 +2,8 @@ package com.mghbackend.service.impl;
 
 import com.mghbackend.dto.StatistiquesFinanceDto;
 import com.mghbackend.dto.TransactionDto;
+import com.mghbackend.dto.reponse.PageCurseur;
+import com.mghbackend.dto.request.RechercheTransactionRequest;
 import com.mghbackend.entity.CommandeRestaurant;
 import com.mghbackend.entity.Reservation;
 import com.mghbackend.entity.Transaction;
@@ -10,20 +12,32 @@ import com.mghbackend.enums.StatutPaiement;
 import com.mghbackend.enums.StatutTransaction;
 import com.mghbackend.enums.TypeTransaction;
 import com.mghbackend.repository.CommandeRestaurantRepository;
+import com.mghbackend.repository.FinanceRollupJourRepository;
 import com.mghbackend.repository.ReservationRepository;
 import com.mghbackend.repository.TransactionRepository;
+import com.mghbackend.repository.TransactionSpecifications;
+import com.mghbackend.service.FinanceRollupService;
+import com.mghbackend.service.Pagination;
+import com.mghbackend.service.ReferenceTransactionGenerator;
 import com.mghbackend.service.TransactionService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.*;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -31,9 +45,15 @@ import java.util.stream.Collectors;
 @Transactional
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final Sort TRI_RECHERCHE = Sort.by(Sort.Direction.DESC, "dateTransaction", "id");
+
     private final TransactionRepository transactionRepository;
     private final ReservationRepository reservationRepository;
     private final CommandeRestaurantRepository commandeRestaurantRepository;
+    private final FinanceRollupJourRepository financeRollupJourRepository;
+    private final FinanceRollupService financeRollupService;
+    private final EntityManager entityManager;
+    private final ReferenceTransactionGenerator referenceTransactionGenerator;
 
     // ─── CRUD ──────────────────────────────────────────────────────────────────
 
@@ -44,13 +64,15 @@ public class TransactionServiceImpl implements TransactionService {
         transaction.setStatut(StatutTransaction.EN_ATTENTE);
         transaction.setDateTransaction(
                 dto.getDateTransaction() != null ? dto.getDateTransaction() : LocalDateTime.now());
-        transaction.setReference(generateReference(hotelId));
+        transaction.setReference(referenceTransactionGenerator.genererReference(hotelId));
         if (userId != null) {
             transaction.setCreatedById(userId);
         }
         transaction.setCreatedAt(LocalDateTime.now());
         transaction.setUpdatedAt(LocalDateTime.now());
-        return toDto(transactionRepository.save(transaction));
+        Transaction saved = transactionRepository.save(transaction);
+        financeRollupService.ajouter(saved);
+        return toDto(saved);
     }
 
     @Override
@@ -68,6 +90,17 @@ public class TransactionServiceImpl implements TransactionService {
                 .stream().map(this::toDto).collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseur<TransactionDto> getTransactionsByHotel(Long hotelId, String curseur, Integer taille) {
+        int n = Pagination.taille(taille);
+        Pagination.Curseur position = Pagination.decoder(curseur);
+        List<Transaction> lignes = position == null
+                ? transactionRepository.findByHotelIdOrderByDateTransactionDescIdDesc(hotelId, Pagination.limite(n))
+                : transactionRepository.findPageByHotelIdApres(hotelId, position.date(), position.id(), Pagination.limite(n));
+        return Pagination.page(lignes, n, Transaction::getDateTransaction, Transaction::getId, this::toDto);
+    }
+
     @Override
     public TransactionDto updateTransaction(Long id, TransactionDto dto) {
         Transaction transaction = transactionRepository.findById(id)
@@ -77,6 +110,7 @@ public class TransactionServiceImpl implements TransactionService {
             throw new RuntimeException("Seules les transactions EN_ATTENTE peuvent être modifiées");
         }
 
+        financeRollupService.retirer(transaction);
         transaction.setType(dto.getType());
         transaction.setCategorie(dto.getCategorie());
         transaction.setMontant(dto.getMontant());
@@ -90,7 +124,9 @@ public class TransactionServiceImpl implements TransactionService {
             transaction.setDateTransaction(dto.getDateTransaction());
         }
         transaction.setUpdatedAt(LocalDateTime.now());
-        return toDto(transactionRepository.save(transaction));
+        Transaction saved = transactionRepository.save(transaction);
+        financeRollupService.ajouter(saved);
+        return toDto(saved);
     }
 
     @Override
@@ -100,6 +136,7 @@ public class TransactionServiceImpl implements TransactionService {
         if (transaction.getStatut() != StatutTransaction.EN_ATTENTE) {
             throw new RuntimeException("Seules les transactions EN_ATTENTE peuvent être supprimées");
         }
+        financeRollupService.retirer(transaction);
         transactionRepository.deleteById(id);
     }
 
@@ -124,13 +161,48 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     @Transactional(readOnly = true)
     public List<TransactionDto> searchTransactions(Long hotelId, String keyword) {
-        String kw = keyword.toLowerCase();
-        return getTransactionsByHotel(hotelId).stream()
-                .filter(t -> (t.getReference() != null && t.getReference().toLowerCase().contains(kw))
-                        || (t.getDescription() != null && t.getDescription().toLowerCase().contains(kw))
-                        || (t.getCategorie() != null && t.getCategorie().toLowerCase().contains(kw))
-                        || (t.getNotes() != null && t.getNotes().toLowerCase().contains(kw)))
-                .collect(Collectors.toList());
+        return rechercherTransactions(hotelId, new RechercheTransactionRequest(keyword));
+    }
+
+    /** Recherche filtrée en base (voir TransactionSpecifications), toutes les lignes correspondantes. */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransactionDto> rechercherTransactions(Long hotelId, RechercheTransactionRequest filtre) {
+        return transactionRepository.findAll(specification(hotelId, filtre), TRI_RECHERCHE).stream()
+                .map(this::toDto).collect(Collectors.toList());
+    }
+
+    /**
+     * Recherche filtrée en base, paginée par curseur :
+     * seules les lignes de la page sont lues, quel que soit l'historique de l'hôtel.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PageCurseur<TransactionDto> rechercherTransactions(Long hotelId, RechercheTransactionRequest filtre,
+                                                              String curseur, Integer taille) {
+        int n = Pagination.taille(taille);
+        Pagination.Curseur position = Pagination.decoder(curseur);
+        Specification<Transaction> specification = specification(hotelId, filtre);
+        if (position != null) {
+            specification = specification.and(TransactionSpecifications.apres(position.date(), position.id()));
+        }
+        List<Transaction> lignes = transactionRepository.findBy(specification, requete -> requete
+                .sortBy(TRI_RECHERCHE)
+                .limit(n + 1)
+                .all());
+        return Pagination.page(lignes, n, Transaction::getDateTransaction, Transaction::getId, this::toDto);
+    }
+
+    private static Specification<Transaction> specification(Long hotelId, RechercheTransactionRequest filtre) {
+        if (filtre.getDateDebut() != null && filtre.getDateFin() != null
+                && filtre.getDateDebut().isAfter(filtre.getDateFin())) {
+            throw new RuntimeException("La date de début doit précéder la date de fin");
+        }
+        if (filtre.getMontantMin() != null && filtre.getMontantMax() != null
+                && filtre.getMontantMin().compareTo(filtre.getMontantMax()) > 0) {
+            throw new RuntimeException("Le montant minimum doit être inférieur au montant maximum");
+        }
+        return TransactionSpecifications.recherche(hotelId, filtre);
     }
 
     // ─── ACTIONS MÉTIER ────────────────────────────────────────────────────────
@@ -142,11 +214,14 @@ public class TransactionServiceImpl implements TransactionService {
         if (transaction.getStatut() != StatutTransaction.EN_ATTENTE) {
             throw new RuntimeException("Seules les transactions EN_ATTENTE peuvent être validées");
         }
+        financeRollupService.retirer(transaction);
         transaction.setStatut(StatutTransaction.VALIDEE);
         transaction.setValidePar(validePar);
         transaction.setDateValidation(LocalDateTime.now());
         transaction.setUpdatedAt(LocalDateTime.now());
-        return toDto(transactionRepository.save(transaction));
+        Transaction saved = transactionRepository.save(transaction);
+        financeRollupService.ajouter(saved);
+        return toDto(saved);
     }
 
     @Override
@@ -161,6 +236,7 @@ public class TransactionServiceImpl implements TransactionService {
         // On mémorise l'ancien statut AVANT de modifier
         StatutTransaction ancienStatut = transaction.getStatut();
 
+        financeRollupService.retirer(transaction);
         transaction.setStatut(StatutTransaction.ANNULEE);
         if (motif != null && !motif.isBlank()) {
             String notes = transaction.getNotes() != null
@@ -170,6 +246,7 @@ public class TransactionServiceImpl implements TransactionService {
         }
         transaction.setUpdatedAt(LocalDateTime.now());
         Transaction saved = transactionRepository.save(transaction);
+        financeRollupService.ajouter(saved);
 
         // Propagation en cascade uniquement si la transaction était VALIDEE et de type REVENU.
         // Une transaction EN_ATTENTE n'a jamais affecté les montants des entités liées.
@@ -255,39 +332,90 @@ public class TransactionServiceImpl implements TransactionService {
 
     // ─── STATISTIQUES ──────────────────────────────────────────────────────────
 
+    /**
+     * Statistiques calculées en deux requêtes GROUP BY : les totaux par type/statut,
+     * puis les montants validés par type, catégorie et mois sur les 6 derniers mois.
+     * Les requêtes portent sur les agrégats journaliers (finance_rollups_jour) dès que ceux
+     * de l'hôtel sont reconstruits, sinon directement sur la table transactions.
+     */
     @Override
     @Transactional(readOnly = true)
     public StatistiquesFinanceDto getStatistiques(Long hotelId) {
-        List<Transaction> all = transactionRepository.findByHotelIdOrderByDateTransactionDesc(hotelId);
-
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime debutJour = now.toLocalDate().atStartOfDay();
-        LocalDateTime debutMois = now.toLocalDate().withDayOfMonth(1).atStartOfDay();
-
-        BigDecimal totalRevenus  = sumByType(all, TypeTransaction.REVENU,  StatutTransaction.VALIDEE);
-        BigDecimal totalDepenses = sumByType(all, TypeTransaction.DEPENSE, StatutTransaction.VALIDEE);
-        BigDecimal revenusMois   = sumByTypeAndPeriod(all, TypeTransaction.REVENU,  StatutTransaction.VALIDEE, debutMois, now);
-        BigDecimal depensesMois  = sumByTypeAndPeriod(all, TypeTransaction.DEPENSE, StatutTransaction.VALIDEE, debutMois, now);
-        BigDecimal revenusJour   = sumByTypeAndPeriod(all, TypeTransaction.REVENU,  StatutTransaction.VALIDEE, debutJour, now);
-        BigDecimal depensesJour  = sumByTypeAndPeriod(all, TypeTransaction.DEPENSE, StatutTransaction.VALIDEE, debutJour, now);
-
-        List<Transaction> enAttente = all.stream()
-                .filter(t -> t.getStatut() == StatutTransaction.EN_ATTENTE)
-                .collect(Collectors.toList());
-
-        BigDecimal montantEnAttente = enAttente.stream()
-                .map(Transaction::getMontant)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Top catégories (transactions validées du mois)
-        Map<String, BigDecimal> catMap = all.stream()
-                .filter(t -> t.getStatut() == StatutTransaction.VALIDEE
-                        && t.getDateTransaction() != null
-                        && !t.getDateTransaction().isBefore(debutMois))
-                .collect(Collectors.groupingBy(
-                        t -> t.getCategorie() != null ? t.getCategorie() : "Autre",
-                        Collectors.reducing(BigDecimal.ZERO, Transaction::getMontant, BigDecimal::add)));
+        YearMonth moisCourant = YearMonth.from(now);
+        LocalDateTime debutHistorique = moisCourant.minusMonths(5).atDay(1).atStartOfDay();
+
+        if (financeRollupService.isPret(hotelId)) {
+            return construireStatistiques(
+                    financeRollupJourRepository.sumByTypeAndStatut(hotelId),
+                    financeRollupJourRepository.sumValideesParMoisEtCategorie(
+                            hotelId, debutHistorique.toLocalDate(), now.toLocalDate()),
+                    moisCourant);
+        }
+        return construireStatistiques(
+                transactionRepository.sumByTypeAndStatut(hotelId),
+                transactionRepository.sumValideesParMoisEtCategorie(hotelId, debutHistorique, debutJour, now),
+                moisCourant);
+    }
+
+    @Override
+    public int reconstruireAgregats(Long hotelId) {
+        return financeRollupService.reconstruire(hotelId);
+    }
+
+    private StatistiquesFinanceDto construireStatistiques(
+            List<TransactionRepository.TotalParTypeStatut> totaux,
+            List<TransactionRepository.CumulMensuelCategorie> cumuls,
+            YearMonth moisCourant) {
+
+        BigDecimal totalRevenus     = BigDecimal.ZERO;
+        BigDecimal totalDepenses    = BigDecimal.ZERO;
+        BigDecimal montantEnAttente = BigDecimal.ZERO;
+        long nombreTransactions = 0;
+        long transactionsEnAttente = 0;
+        for (TransactionRepository.TotalParTypeStatut t : totaux) {
+            nombreTransactions += t.getNombre();
+            if (t.getStatut() == StatutTransaction.EN_ATTENTE) {
+                transactionsEnAttente += t.getNombre();
+                montantEnAttente = montantEnAttente.add(t.getMontant());
+            } else if (t.getStatut() == StatutTransaction.VALIDEE) {
+                if (t.getType() == TypeTransaction.REVENU) {
+                    totalRevenus = totalRevenus.add(t.getMontant());
+                } else if (t.getType() == TypeTransaction.DEPENSE) {
+                    totalDepenses = totalDepenses.add(t.getMontant());
+                }
+            }
+        }
+
+        BigDecimal revenusMois  = BigDecimal.ZERO;
+        BigDecimal depensesMois = BigDecimal.ZERO;
+        BigDecimal revenusJour  = BigDecimal.ZERO;
+        BigDecimal depensesJour = BigDecimal.ZERO;
+        Map<YearMonth, BigDecimal> revenusParMois  = new HashMap<>();
+        Map<YearMonth, BigDecimal> depensesParMois = new HashMap<>();
+        Map<String, BigDecimal> catMap = new HashMap<>();
+
+        for (TransactionRepository.CumulMensuelCategorie c : cumuls) {
+            YearMonth ym = YearMonth.of(c.getAnnee(), c.getMois());
+            boolean revenu = c.getType() == TypeTransaction.REVENU;
+            (revenu ? revenusParMois : depensesParMois).merge(ym, c.getMontant(), BigDecimal::add);
+
+            if (ym.equals(moisCourant)) {
+                if (revenu) {
+                    revenusMois = revenusMois.add(c.getMontantEcoule());
+                    revenusJour = revenusJour.add(c.getMontantJour());
+                } else {
+                    depensesMois = depensesMois.add(c.getMontantEcoule());
+                    depensesJour = depensesJour.add(c.getMontantJour());
+                }
+            }
+            // Top catégories : toutes les transactions validées depuis le début du mois
+            if (!ym.isBefore(moisCourant)) {
+                catMap.merge(c.getCategorie() != null ? c.getCategorie() : "Autre",
+                        c.getMontant(), BigDecimal::add);
+            }
+        }
 
         List<StatistiquesFinanceDto.TopCategorie> topCategories = catMap.entrySet().stream()
                 .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed())
@@ -303,11 +431,9 @@ public class TransactionServiceImpl implements TransactionService {
         List<StatistiquesFinanceDto.EvolutionMensuelle> evolution = new ArrayList<>();
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MM/yyyy");
         for (int i = 5; i >= 0; i--) {
-            YearMonth ym    = YearMonth.now().minusMonths(i);
-            LocalDateTime debut = ym.atDay(1).atStartOfDay();
-            LocalDateTime fin   = ym.atEndOfMonth().atTime(23, 59, 59);
-            BigDecimal rev = sumByTypeAndPeriod(all, TypeTransaction.REVENU,  StatutTransaction.VALIDEE, debut, fin);
-            BigDecimal dep = sumByTypeAndPeriod(all, TypeTransaction.DEPENSE, StatutTransaction.VALIDEE, debut, fin);
+            YearMonth ym = moisCourant.minusMonths(i);
+            BigDecimal rev = revenusParMois.getOrDefault(ym, BigDecimal.ZERO);
+            BigDecimal dep = depensesParMois.getOrDefault(ym, BigDecimal.ZERO);
             StatistiquesFinanceDto.EvolutionMensuelle em = new StatistiquesFinanceDto.EvolutionMensuelle();
             em.setMois(ym.format(fmt));
             em.setRevenus(rev);
@@ -326,8 +452,8 @@ public class TransactionServiceImpl implements TransactionService {
         stats.setRevenusJour(revenusJour);
         stats.setDepensesJour(depensesJour);
         stats.setResultatMois(revenusMois.subtract(depensesMois));
-        stats.setNombreTransactions(all.size());
-        stats.setTransactionsEnAttente(enAttente.size());
+        stats.setNombreTransactions(nombreTransactions);
+        stats.setTransactionsEnAttente(transactionsEnAttente);
         stats.setMontantEnAttente(montantEnAttente);
         stats.setTopCategories(topCategories);
         stats.setEvolutionMensuelle(evolution);
@@ -336,50 +462,61 @@ public class TransactionServiceImpl implements TransactionService {
 
     // ─── EXPORT ────────────────────────────────────────────────────────────────
 
+    /**
+     * Écrit le CSV directement dans le flux de sortie, ligne par ligne (dates incluses, facultatives).
+     * Les entités sont détachées au fur et à mesure : la mémoire reste constante
+     * quel que soit le nombre de transactions exportées.
+     */
     @Override
-    public byte[] exportTransactions(Long hotelId, String format, String dateDebut, String dateFin) {
-        List<TransactionDto> transactions = getTransactionsByHotel(hotelId);
-        StringBuilder sb = new StringBuilder();
-        sb.append("Référence;Type;Catégorie;Montant;Date;Statut;Description\n");
-        transactions.forEach(t -> sb.append(String.format("%s;%s;%s;%s;%s;%s;%s\n",
-                nvl(t.getReference()), nvl(t.getType()), nvl(t.getCategorie()),
-                nvl(t.getMontant()), nvl(t.getDateTransaction()),
-                nvl(t.getStatut()), nvl(t.getDescription()))));
-        return sb.toString().getBytes();
+    @Transactional(readOnly = true)
+    public void exportTransactions(Long hotelId, LocalDate dateDebut, LocalDate dateFin, OutputStream out) {
+        LocalDateTime debut = dateDebut != null ? dateDebut.atStartOfDay() : null;
+        LocalDateTime fin   = dateFin != null ? dateFin.plusDays(1).atStartOfDay() : null;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        try (Stream<Transaction> transactions =
+                     transactionRepository.streamByHotelIdAndPeriode(hotelId, debut, fin)) {
+            writer.write("Référence;Type;Catégorie;Montant;Date;Statut;Description\n");
+            Iterator<Transaction> it = transactions.iterator();
+            while (it.hasNext()) {
+                Transaction t = it.next();
+                writer.write(csv(t.getReference()));
+                writer.write(';');
+                writer.write(csv(t.getType()));
+                writer.write(';');
+                writer.write(csv(t.getCategorie()));
+                writer.write(';');
+                writer.write(csv(t.getMontant()));
+                writer.write(';');
+                writer.write(csv(t.getDateTransaction()));
+                writer.write(';');
+                writer.write(csv(t.getStatut()));
+                writer.write(';');
+                writer.write(csv(t.getDescription()));
+                writer.write('\n');
+                entityManager.detach(t);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Export des transactions interrompu", e);
+        }
     }
 
     // ─── HELPERS PRIVÉS ────────────────────────────────────────────────────────
 
-    private String generateReference(Long hotelId) {
-        long count = transactionRepository.countByHotelId(hotelId) + 1;
-        return String.format("TRX-%d-%05d", java.time.Year.now().getValue(), count);
-    }
-
-    private BigDecimal sumByType(List<Transaction> list, TypeTransaction type, StatutTransaction statut) {
-        return list.stream()
-                .filter(t -> type == t.getType() && statut == t.getStatut())
-                .map(Transaction::getMontant)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
-    private BigDecimal sumByTypeAndPeriod(List<Transaction> list, TypeTransaction type,
-                                          StatutTransaction statut,
-                                          LocalDateTime debut, LocalDateTime fin) {
-        return list.stream()
-                .filter(t -> type == t.getType() && statut == t.getStatut()
-                        && t.getDateTransaction() != null
-                        && !t.getDateTransaction().isBefore(debut)
-                        && !t.getDateTransaction().isAfter(fin))
-                .map(Transaction::getMontant)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
-
     private String nvl(Object o) {
         return o != null ? o.toString() : "";
     }
 
+    /** Valeur CSV : entre guillemets si elle contient le séparateur, un guillemet ou un saut de ligne. */
+    private String csv(Object o) {
+        String v = nvl(o);
+        if (v.indexOf(';') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0 && v.indexOf('\r') < 0) {
+            return v;
+        }
+        return '"' + v.replace("\"", "\"\"") + '"';
+    }
+
     private TransactionDto toDto(Transaction t) {
         TransactionDto dto = new TransactionDto();
         dto.setId(t.getId());
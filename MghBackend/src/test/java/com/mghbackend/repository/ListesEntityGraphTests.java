@@ -0,0 +1,232 @@
+package com.mghbackend.repository;
+
+import com.mghbackend.entity.*;
+import com.mghbackend.enums.TypeChambre;
+import com.mghbackend.enums.TypeMouvement;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listes paginées chargées avec les entity graphs "*.liste" : le nombre de requêtes SQL
+ * pour lire une page et parcourir ses associations est le même pour 1 et pour N lignes
+ * (pas de N+1 sur les associations affichées).
+ *
+ * Chaque ligne a ses propres client, chambre, produit… pour qu'un chargement paresseux
+ * coûte une requête par ligne ; les comptes (créateur, serveur) sont partagés, comme en
+ * exploitation. Le cache de second niveau est désactivé pour compter les accès à la base.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.properties.hibernate.auto_quote_keyword=true",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false",
+		"spring.jpa.properties.hibernate.cache.region.factory_class=org.hibernate.cache.internal.NoCachingRegionFactory"
+})
+class ListesEntityGraphTests {
+
+	private static final int N = 20;
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	@Autowired
+	private CommandeRestaurantRepository commandeRestaurantRepository;
+
+	@Autowired
+	private FactureRepository factureRepository;
+
+	@Autowired
+	private MouvementStockRepository mouvementStockRepository;
+
+	private Statistics statistiques;
+	private Hotel hotel;
+	private User employe;
+
+	@BeforeEach
+	void preparer() {
+		statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		hotel = new Hotel();
+		hotel.setName("Hôtel test");
+		hotel.setEmail("hotel@mgh.test");
+		hotel.setPassword("secret");
+		em.persist(hotel);
+
+		employe = new User();
+		employe.setUsername("employe");
+		employe.setEmail("employe@mgh.test");
+		employe.setPassword("secret");
+		employe.setFirstName("Awa");
+		employe.setLastName("Koné");
+		employe.setHotel(hotel);
+		em.persist(employe);
+	}
+
+	@Test
+	void reservations() {
+		verifierRequetesConstantes(this::reservation, () -> reservationRepository
+				.findByHotelOrderByCreatedAtDescIdDesc(hotel, PageRequest.of(0, 50))
+				.forEach(r -> {
+					r.getChambre().getNumero();
+					r.getClient().getNom();
+					r.getCreatedBy().getUsername();
+					r.getCheckinBy().getUsername();
+				}));
+	}
+
+	@Test
+	void commandesRestaurant() {
+		verifierRequetesConstantes(i -> {
+			CommandeRestaurant commande = new CommandeRestaurant();
+			commande.setNumeroCommande("CMD-" + i);
+			commande.setHotel(hotel);
+			commande.setClient(client(i));
+			commande.setReservation(reservation(i));
+			commande.setServeur(employe);
+			em.persist(commande);
+		}, () -> commandeRestaurantRepository
+				.findByHotelOrderByCreatedAtDescIdDesc(hotel, PageRequest.of(0, 50))
+				.forEach(c -> {
+					c.getClient().getNom();
+					c.getReservation().getNumeroReservation();
+					c.getServeur().getUsername();
+				}));
+	}
+
+	@Test
+	void factures() {
+		verifierRequetesConstantes(i -> {
+			Facture facture = new Facture();
+			facture.setNumeroFacture("FAC-" + i);
+			facture.setDateEmission(LocalDate.now());
+			facture.setDateEcheance(LocalDate.now().plusDays(30));
+			facture.setHotel(hotel);
+			facture.setClient(client(i));
+			facture.setReservation(reservation(i));
+			em.persist(facture);
+		}, () -> factureRepository
+				.findByHotelOrderByCreatedAtDescIdDesc(hotel, PageRequest.of(0, 50))
+				.forEach(f -> {
+					f.getClient().getNom();
+					f.getReservation().getNumeroReservation();
+				}));
+	}
+
+	@Test
+	void mouvementsStock() {
+		verifierRequetesConstantes(i -> {
+			MouvementStock mouvement = new MouvementStock();
+			mouvement.setProduit(produit(i));
+			mouvement.setType(TypeMouvement.ENTREE);
+			mouvement.setQuantite(BigDecimal.ONE);
+			mouvement.setUser(employe);
+			mouvement.setHotel(hotel);
+			em.persist(mouvement);
+		}, () -> mouvementStockRepository
+				.findByHotelOrderByDateMouvementDescIdDesc(hotel, PageRequest.of(0, 50))
+				.forEach(m -> {
+					m.getProduit().getNom();
+					m.getUser().getUsername();
+				}));
+	}
+
+	// ─── Utilitaires ──────────────────────────────────────────────────────────
+
+	/**
+	 * Crée une ligne et compte les requêtes de la lecture, puis complète à N lignes et
+	 * recompte : les deux comptes doivent être égaux (une seule requête attendue).
+	 */
+	private void verifierRequetesConstantes(IntConsumer creerLigne, Runnable lecture) {
+		creerLigne.accept(0);
+		long pourUneLigne = compterRequetes(lecture);
+
+		for (int i = 1; i < N; i++) {
+			creerLigne.accept(i);
+		}
+		long pourNLignes = compterRequetes(lecture);
+
+		assertThat(statistiques.isStatisticsEnabled()).isTrue();
+		assertThat(pourNLignes).as("requêtes pour %d lignes", N).isEqualTo(pourUneLigne);
+		assertThat(pourUneLigne).isEqualTo(1);
+	}
+
+	/** Requêtes préparées pour la lecture, contexte de persistance vidé au préalable. */
+	private long compterRequetes(Runnable lecture) {
+		em.flush();
+		em.clear();
+		statistiques.clear();
+		lecture.run();
+		return statistiques.getPrepareStatementCount();
+	}
+
+	private Reservation reservation(int i) {
+		Reservation reservation = new Reservation();
+		reservation.setNumeroReservation("RES-" + i);
+		reservation.setHotel(hotel);
+		reservation.setChambre(chambre(i));
+		reservation.setClient(client(i));
+		reservation.setDateArrivee(LocalDate.now().plusDays(i));
+		reservation.setDateDepart(LocalDate.now().plusDays(i + 1));
+		reservation.setNombreNuits(1);
+		reservation.setNombreAdultes(1);
+		reservation.setPrixParNuit(BigDecimal.TEN);
+		reservation.setMontantTotal(BigDecimal.TEN);
+		reservation.setCreatedBy(employe);
+		reservation.setCheckinBy(employe);
+		em.persist(reservation);
+		return reservation;
+	}
+
+	private Chambre chambre(int i) {
+		Chambre chambre = new Chambre();
+		chambre.setNumero("C" + i + "-" + System.nanoTime() % 100000);
+		chambre.setType(TypeChambre.DOUBLE);
+		chambre.setPrixParNuit(BigDecimal.TEN);
+		chambre.setCapacite(2);
+		chambre.setSuperficie(20);
+		chambre.setEtage(1);
+		chambre.setHotel(hotel);
+		em.persist(chambre);
+		return chambre;
+	}
+
+	private Client client(int i) {
+		Client client = new Client();
+		client.setPrenom("Client");
+		client.setNom("N" + i);
+		client.setTelephone("0700" + i + System.nanoTime() % 100000);
+		client.setHotel(hotel);
+		em.persist(client);
+		return client;
+	}
+
+	private Produit produit(int i) {
+		Produit produit = new Produit();
+		produit.setNom("Produit " + i);
+		produit.setCode("P-" + i);
+		produit.setPrixUnitaire(BigDecimal.TEN);
+		produit.setHotel(hotel);
+		em.persist(produit);
+		return produit;
+	}
+}
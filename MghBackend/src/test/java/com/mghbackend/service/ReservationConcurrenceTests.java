@@ -0,0 +1,192 @@
+package com.mghbackend.service;
+
+import com.mghbackend.dto.request.CreateReservationRequest;
+import com.mghbackend.entity.Chambre;
+import com.mghbackend.entity.Client;
+import com.mghbackend.entity.Hotel;
+import com.mghbackend.enums.TypeChambre;
+import com.mghbackend.repository.ChambreRepository;
+import com.mghbackend.repository.ClientRepository;
+import com.mghbackend.repository.HotelRepository;
+import com.mghbackend.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Réservations concurrentes sur les mêmes nuits : une seule réussit par chambre, et chaque
+ * refus vient du contrôle des conflits (verrou de chambre pris avant toute lecture), jamais de
+ * la clé unique des nuits occupées.
+ *
+ * Chaque tentative s'exécute dans sa propre transaction validée, en REPEATABLE READ comme
+ * MySQL par défaut : un instantané pris avant l'attente du verrou ignorerait la réservation
+ * validée par son détenteur.
+ */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:reservations-concurrentes;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.hikari.transaction-isolation=TRANSACTION_REPEATABLE_READ",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.auto_quote_keyword=true",
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false",
+		"spring.jpa.properties.hibernate.cache.region.factory_class=org.hibernate.cache.internal.NoCachingRegionFactory"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReservationService.class, OccupationChambreService.class, NumerotationService.class})
+class ReservationConcurrenceTests {
+
+	private static final Logger log = LoggerFactory.getLogger(ReservationConcurrenceTests.class);
+
+	private static final int CHAMBRES = 20;
+	private static final int TENTATIVES_PAR_CHAMBRE = 50;
+	private static final int THREADS = 16;
+
+	@Autowired
+	private ReservationService reservationService;
+
+	@Autowired
+	private ReservationRepository reservationRepository;
+
+	@Autowired
+	private HotelRepository hotelRepository;
+
+	@Autowired
+	private ChambreRepository chambreRepository;
+
+	@Autowired
+	private ClientRepository clientRepository;
+
+	@SpyBean
+	private OccupationChambreService occupationChambreService;
+
+	@MockBean
+	private ClientService clientService;
+
+	@MockBean
+	private TransactionHelper transactionHelper;
+
+	@MockBean
+	private DisponibiliteIndex disponibiliteIndex;
+
+	@MockBean
+	private RechercheTexteIntegral rechercheTexteIntegral;
+
+	@Test
+	void uneSeuleReservationParChambreEtParNuit() throws Exception {
+		Hotel hotel = hotel();
+		Client client = client(hotel);
+		List<Chambre> chambres = new ArrayList<>();
+		for (int i = 0; i < CHAMBRES; i++) {
+			chambres.add(chambre(hotel, i));
+		}
+
+		// Toutes les tentatives d'une chambre couvrent les nuits J+3 et J+4 : elles se chevauchent deux à deux
+		LocalDate aujourdhui = LocalDate.now();
+		List<Callable<Boolean>> tentatives = new ArrayList<>();
+		for (Chambre chambre : chambres) {
+			for (int n = 0; n < TENTATIVES_PAR_CHAMBRE; n++) {
+				CreateReservationRequest requete = new CreateReservationRequest();
+				requete.setChambreId(chambre.getId());
+				requete.setClientId(client.getId());
+				requete.setDateArrivee(aujourdhui.plusDays(1 + ThreadLocalRandom.current().nextInt(3)));
+				requete.setDateDepart(aujourdhui.plusDays(4 + ThreadLocalRandom.current().nextInt(3)));
+				requete.setNombreAdultes(1);
+				tentatives.add(() -> reserver(hotel.getId(), requete));
+			}
+		}
+		Collections.shuffle(tentatives);
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		long debut = System.nanoTime();
+		int acceptees = 0;
+		try {
+			for (Future<Boolean> resultat : executor.invokeAll(tentatives)) {
+				acceptees += resultat.get() ? 1 : 0;
+			}
+		} finally {
+			executor.shutdown();
+		}
+		double secondes = (System.nanoTime() - debut) / 1e9;
+		log.info("{} tentatives sur {} chambres en {} s ({} réservations/s), {} acceptées",
+				tentatives.size(), CHAMBRES, String.format("%.2f", secondes),
+				Math.round(tentatives.size() / secondes), acceptees);
+
+		assertThat(acceptees).isEqualTo(CHAMBRES);
+		for (Chambre chambre : chambres) {
+			assertThat(reservationRepository.findReservationsByChambreAndPeriode(
+					chambre, aujourdhui, aujourdhui.plusDays(7))).hasSize(1);
+		}
+		// Nuits écrites seulement pour les réservations acceptées : aucun refus par la clé unique
+		verify(occupationChambreService, times(CHAMBRES)).occuper(any());
+	}
+
+	/** Vrai si la réservation est créée, faux si elle est refusée pour indisponibilité. */
+	private boolean reserver(Long hotelId, CreateReservationRequest requete) {
+		try {
+			reservationService.createReservation(hotelId, requete, null);
+			return true;
+		} catch (RuntimeException e) {
+			assertThat(e).hasMessage("La chambre n'est pas disponible pour cette période");
+			return false;
+		}
+	}
+
+	// ─── Utilitaires ──────────────────────────────────────────────────────────
+
+	private Hotel hotel() {
+		Hotel hotel = new Hotel();
+		hotel.setName("Hôtel concurrence");
+		hotel.setEmail("concurrence@mgh.test");
+		hotel.setPassword("secret");
+		return hotelRepository.save(hotel);
+	}
+
+	private Chambre chambre(Hotel hotel, int i) {
+		Chambre chambre = new Chambre();
+		chambre.setNumero("C" + i);
+		chambre.setType(TypeChambre.DOUBLE);
+		chambre.setPrixParNuit(BigDecimal.TEN);
+		chambre.setCapacite(2);
+		chambre.setSuperficie(20);
+		chambre.setEtage(1);
+		chambre.setHotel(hotel);
+		return chambreRepository.save(chambre);
+	}
+
+	private Client client(Hotel hotel) {
+		Client client = new Client();
+		client.setPrenom("Client");
+		client.setNom("Concurrent");
+		client.setTelephone("0700000000");
+		client.setHotel(hotel);
+		return clientRepository.save(client);
+	}
+}
@@ -0,0 +1,354 @@
+#!/bin/bash
+
+# Banc de charge MaGestionHotel : threads plateforme vs threads virtuels
+#
+# Démarre un MySQL jetable (conteneur Docker, données en tmpfs), lance le backend deux fois
+# (MGH_VIRTUAL_THREADS=false puis true) sur les mêmes données, et mesure débit et latence p99
+# des endpoints réservations et commandes restaurant avec `hey`.
+# Scénario de contention : ventes concurrentes sur deux produits très demandés (bière, eau),
+# puis contrôle qu'aucune vente n'est perdue ni survendue (stock final = initial - ventes ≥ 0).
+# Filtre JWT : même endpoint trivial sans jeton puis avec jeton ; l'écart est le coût du filtre.
+# Double réservation : réservations concurrentes qui se chevauchent sur 20 chambres, puis contrôle
+# en base qu'aucune nuit n'est vendue deux fois.
+# Allers-retours SQL (compteur Questions de MySQL) pour une commande de 20 lignes et une facture
+# de 30 lignes, avec insertions en lots JDBC puis sans lots (une requête par ligne, comme IDENTITY).
+#
+# Prérequis : docker, java 21, hey (https://github.com/rakyll/hey), curl, jq, bc
+# Usage : ./loadtest.sh [durée] [concurrence]      ex : ./loadtest.sh 30s 200
+
+set -e
+
+DUREE=${1:-30s}
+CONCURRENCE=${2:-200}
+PORT_MYSQL=3317
+PORT_APP=18080
+CONTENEUR=mgh-loadtest-mysql
+BASE_URL="http://localhost:${PORT_APP}"
+JAR=$(ls MghBackend/build/libs/*.jar 2>/dev/null | grep -v plain | head -1)
+RESULTATS=$(mktemp)
+COHERENCE=$(mktemp)
+ALLERS_RETOURS=$(mktemp)
+STOCK_CONTENTION=20000
+CHAMBRES_CONCURRENCE=20
+TENTATIVES_PAR_CHAMBRE=100
+
+GREEN='\033[0;32m'
+RED='\033[0;31m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m'
+
+echo -e "${BLUE}╔════════════════════════════════════════════╗${NC}"
+echo -e "${BLUE}║  Banc de charge MaGestionHotel            ║${NC}"
+echo -e "${BLUE}╚════════════════════════════════════════════╝${NC}"
+echo ""
+
+for outil in docker java hey curl jq bc; do
+    if ! command -v $outil > /dev/null; then
+        echo -e "${RED}❌ $outil introuvable${NC}"
+        exit 1
+    fi
+done
+
+if [ -z "$JAR" ]; then
+    echo -e "${YELLOW}📦 Construction du jar...${NC}"
+    (cd MghBackend && ./gradlew bootJar --no-daemon -x test -q)
+    JAR=$(ls MghBackend/build/libs/*.jar | grep -v plain | head -1)
+fi
+
+APP_PID=""
+nettoyer() {
+    [ -n "$APP_PID" ] && kill $APP_PID 2>/dev/null || true
+    docker rm -f $CONTENEUR > /dev/null 2>&1 || true
+    rm -f "$RESULTATS" "$COHERENCE" "$ALLERS_RETOURS" "$RESULTATS".produit-*
+}
+trap nettoyer EXIT
+
+# ─── MySQL jetable ────────────────────────────────────────────────────────────
+
+echo -e "${YELLOW}🐬 Démarrage de MySQL (port ${PORT_MYSQL})...${NC}"
+docker rm -f $CONTENEUR > /dev/null 2>&1 || true
+docker run -d --name $CONTENEUR --tmpfs /var/lib/mysql \
+    -e MYSQL_ROOT_PASSWORD=loadtest -e MYSQL_DATABASE=mgh_loadtest \
+    -p ${PORT_MYSQL}:3306 mysql:8.0 > /dev/null
+until docker exec $CONTENEUR mysqladmin ping -h 127.0.0.1 -uroot -ploadtest --silent 2> /dev/null; do
+    sleep 2
+done
+
+# ─── Application ──────────────────────────────────────────────────────────────
+
+# demarrer_app <virtuels> <lots JDBC true|false>
+demarrer_app() {
+    local virtuels=$1 lots=${2:-true}
+    local options=()
+    [ "$lots" = "false" ] && options+=(--spring.jpa.properties.hibernate.jdbc.batch_size=1)
+    MGH_VIRTUAL_THREADS=$virtuels java -jar "$JAR" \
+        --server.port=${PORT_APP} \
+        --spring.datasource.url="jdbc:mysql://localhost:${PORT_MYSQL}/mgh_loadtest?useSSL=false&allowPublicKeyRetrieval=true&rewriteBatchedStatements=${lots}" \
+        --spring.datasource.username=root \
+        --spring.datasource.password=loadtest \
+        --logging.level.org.hibernate.SQL=WARN \
+        --logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN \
+        "${options[@]}" \
+        > "logs-loadtest-virtuels-${virtuels}-lots-${lots}.log" 2>&1 &
+    APP_PID=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' ${BASE_URL}/api/auth/login -X POST -H 'Content-Type: application/json' -d '{}')" != "000" ]; do
+        if ! kill -0 $APP_PID 2> /dev/null; then
+            echo -e "${RED}❌ L'application n'a pas démarré (voir logs-loadtest-virtuels-${virtuels}-lots-${lots}.log)${NC}"
+            exit 1
+        fi
+        sleep 2
+    done
+}
+
+arreter_app() {
+    kill $APP_PID
+    wait $APP_PID 2> /dev/null || true
+    APP_PID=""
+}
+
+api() {
+    curl -s -X "$1" "${BASE_URL}$2" -H 'Content-Type: application/json' -H "Authorization: Bearer ${TOKEN}" ${3:+-d "$3"}
+}
+
+# ─── Jeu de données (créé une fois, partagé par les deux modes) ───────────────
+
+initialiser_donnees() {
+    echo -e "${YELLOW}🌱 Création du jeu de données...${NC}"
+    curl -s -X POST ${BASE_URL}/api/hotels/register -H 'Content-Type: application/json' \
+        -d '{"name":"Hotel Charge","email":"charge@mgh.test","password":"loadtest"}' > /dev/null
+    connexion
+
+    local aujourdhui=$(date +%Y-%m-%d)
+    for i in $(seq 1 50); do
+        local chambre=$(api POST /api/chambres/create \
+            "{\"numero\":\"C$i\",\"type\":\"DOUBLE\",\"prixParNuit\":25000,\"capacite\":2,\"superficie\":20,\"statut\":\"DISPONIBLE\",\"etage\":1}" \
+            | jq -r '.data.id')
+        for j in $(seq 0 9); do
+            local arrivee=$(date -d "$aujourdhui + $((j * 3)) days" +%Y-%m-%d)
+            local depart=$(date -d "$aujourdhui + $((j * 3 + 1)) days" +%Y-%m-%d)
+            api POST /api/reservations \
+                "{\"chambreId\":$chambre,\"dateArrivee\":\"$arrivee\",\"dateDepart\":\"$depart\",\"nombreAdultes\":1,\"newClient\":{\"prenom\":\"Client\",\"nom\":\"C$i-$j\",\"telephone\":\"0700$i$j\"}}" \
+                > /dev/null
+        done
+    done
+
+    PRODUIT=$(api POST /api/produits \
+        '{"nom":"Plat du jour","code":"PLAT-CHARGE","unite":"portion","quantiteStock":1000000,"prixUnitaire":5000,"typeProduit":"PLAT","disponible":true}' \
+        | jq -r '.data.id')
+    BIERE=$(api POST /api/produits \
+        '{"nom":"Bière","code":"BIERE-CHARGE","unite":"bouteille","quantiteStock":0,"prixUnitaire":1000,"typeProduit":"BOISSON","disponible":true}' \
+        | jq -r '.data.id')
+    EAU=$(api POST /api/produits \
+        '{"nom":"Eau","code":"EAU-CHARGE","unite":"bouteille","quantiteStock":0,"prixUnitaire":500,"typeProduit":"BOISSON","disponible":true}' \
+        | jq -r '.data.id')
+}
+
+connexion() {
+    TOKEN=$(curl -s -X POST ${BASE_URL}/api/auth/login -H 'Content-Type: application/json' \
+        -d '{"email":"charge@mgh.test","password":"loadtest","accountType":"HOTEL"}' | jq -r '.data.token')
+}
+
+# ─── Mesures ──────────────────────────────────────────────────────────────────
+
+mesurer() {
+    local mode=$1 nom=$2 methode=$3 chemin=$4 corps=$5 entete=$6
+    local sortie
+    sortie=$(hey -z "$DUREE" -c "$CONCURRENCE" -m "$methode" \
+        ${TOKEN:+-H "Authorization: Bearer ${TOKEN}"} ${entete:+-H "$entete"} -T 'application/json' ${corps:+-d "$corps"} \
+        "${BASE_URL}${chemin}")
+    local debit=$(echo "$sortie" | awk '/Requests\/sec/ {print $2}')
+    local p99=$(echo "$sortie" | awk '/ 99%/ {print $3 * 1000}')
+    local erreurs=$(echo "$sortie" | awk '/\[[0-9]+\]/ && !/\[200\]/ && !/\[201\]/ && !/\[304\]/ {n += $2} END {print n + 0}')
+    printf "%-10s %-32s %10s %10s %8s\n" "$mode" "$nom" "$debit" "$p99" "$erreurs" >> "$RESULTATS"
+}
+
+# Ventes concurrentes sur les produits chauds ; les refus pour stock épuisé sont attendus
+contention() {
+    local mode=$1
+    local pids=()
+    for produit in $BIERE $EAU; do
+        api POST "/api/produits/${produit}/ajuster-stock?quantite=${STOCK_CONTENTION}&type=AJUSTEMENT" > /dev/null
+        hey -z "$DUREE" -c $((CONCURRENCE / 2)) -m POST -H "Authorization: Bearer ${TOKEN}" \
+            "${BASE_URL}/api/produits/${produit}/ajuster-stock?quantite=1&type=SORTIE" \
+            > "$RESULTATS.produit-$produit" &
+        pids+=($!)
+    done
+    wait "${pids[@]}"
+
+    for produit in $BIERE $EAU; do
+        local sortie=$(cat "$RESULTATS.produit-$produit")
+        local debit=$(echo "$sortie" | awk '/Requests\/sec/ {print $2}')
+        local p99=$(echo "$sortie" | awk '/ 99%/ {print $3 * 1000}')
+        local ventes=$(echo "$sortie" | awk '/\[200\]/ {print $2}')
+        local refus=$(echo "$sortie" | awk '/\[[0-9]+\]/ && !/\[200\]/ {n += $2} END {print n + 0}')
+        local stock=$(api GET "/api/produits/${produit}" | jq -r '.data.quantiteStock')
+        printf "%-10s %-32s %10s %10s %8s\n" "$mode" "SORTIE stock produit $produit" "$debit" "$p99" "$refus" >> "$RESULTATS"
+        if awk -v s="$stock" -v v="${ventes:-0}" -v i="$STOCK_CONTENTION" 'BEGIN {exit !(s == i - v && s >= 0)}'; then
+            echo -e "${GREEN}✅ ${mode} produit ${produit} : ${ventes:-0} ventes, stock final ${stock}${NC}" >> "$COHERENCE"
+        else
+            echo -e "${RED}❌ ${mode} produit ${produit} : ${ventes:-0} ventes, stock final ${stock} (attendu $((STOCK_CONTENTION - ${ventes:-0})))${NC}" >> "$COHERENCE"
+        fi
+    done
+}
+
+# Tablettes qui interrogent le menu : réponse complète, puis requête conditionnelle (304 attendu)
+menu() {
+    local mode=$1
+    local etag=$(curl -s -D - -o /dev/null -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/api/produits/menu" \
+        | awk 'tolower($1) == "etag:" {print $2}' | tr -d '\r')
+    mesurer $mode "GET menu" GET "/api/produits/menu"
+    mesurer $mode "GET menu (If-None-Match → 304)" GET "/api/produits/menu" "" "If-None-Match: ${etag}"
+}
+
+# Coût du filtre JWT par requête : /actuator/health (réponse triviale, sans base) sans jeton, puis
+# avec jeton (un seul décodage HMAC, contrôle de révocation, principal en cache). L'écart de débit
+# et de p99 entre les deux lignes est celui du filtre ; le profil authentifié donne le parcours complet.
+filtre_jwt() {
+    local mode=$1
+    local jeton=$TOKEN
+    TOKEN=""
+    mesurer $mode "GET health (sans jeton)" GET "/actuator/health"
+    TOKEN=$jeton
+    mesurer $mode "GET health (jeton, filtre JWT)" GET "/actuator/health"
+    mesurer $mode "GET profil hôtel (jeton)" GET "/api/hotels/profile"
+}
+
+# Réservations concurrentes qui se chevauchent sur quelques chambres : une seule doit obtenir
+# chaque nuit. Contrôle en base : aucune paire de réservations actives ne se recouvre, chaque
+# nuit réservée a exactement une ligne d'occupation, et les créations acceptées (201) sont en base.
+double_reservation() {
+    local mode=$1
+    local prefixe="R-${mode}-"
+    local lot=$(mktemp)
+    local aujourdhui=$(date +%Y-%m-%d)
+    for i in $(seq 1 $CHAMBRES_CONCURRENCE); do
+        local chambre=$(api POST /api/chambres/create \
+            "{\"numero\":\"${prefixe}$i\",\"type\":\"DOUBLE\",\"prixParNuit\":25000,\"capacite\":2,\"superficie\":20,\"statut\":\"DISPONIBLE\",\"etage\":2}" \
+            | jq -r '.data.id')
+        for k in $(seq 1 $TENTATIVES_PAR_CHAMBRE); do
+            local decalage=$((200 + RANDOM % 10))
+            local arrivee=$(date -d "$aujourdhui + $decalage days" +%Y-%m-%d)
+            local depart=$(date -d "$aujourdhui + $((decalage + 1 + RANDOM % 3)) days" +%Y-%m-%d)
+            echo "${BASE_URL} ${TOKEN} ${chambre} ${arrivee} ${depart} ${i}${k}${RANDOM}"
+        done
+    done | shuf > "$lot"
+
+    local debut=$(date +%s.%N)
+    local codes=$(xargs -P "$CONCURRENCE" -L 1 sh -c 'curl -s -o /dev/null -w "%{http_code}\n" -X POST "$0/api/reservations" \
+        -H "Content-Type: application/json" -H "Authorization: Bearer $1" \
+        -d "{\"chambreId\":$2,\"dateArrivee\":\"$3\",\"dateDepart\":\"$4\",\"nombreAdultes\":1,\"newClient\":{\"prenom\":\"Concurrent\",\"nom\":\"N$5\",\"telephone\":\"08$5\"}}"' \
+        < "$lot")
+    local duree=$(echo "$(date +%s.%N) - $debut" | bc)
+    rm -f "$lot"
+
+    local tentatives=$((CHAMBRES_CONCURRENCE * TENTATIVES_PAR_CHAMBRE))
+    local acceptees=$(echo "$codes" | grep -c '^201$' || true)
+    local refusees=$(echo "$codes" | grep -c '^400$' || true)
+    local debit=$(echo "scale=1; $tentatives / $duree" | bc)
+    printf "%-10s %-32s %10s %10s %8s\n" "$mode" "POST réservations concurrentes" "$debit" "-" \
+        "$((tentatives - acceptees - refusees))" >> "$RESULTATS"
+
+    local filtre="c.numero LIKE '${prefixe}%' AND r.statut NOT IN ('ANNULEE', 'TERMINEE', 'NO_SHOW')"
+    local en_base=$(sql "SELECT COUNT(*) FROM reservations r JOIN chambres c ON c.id = r.chambre_id WHERE ${filtre}")
+    local chevauchements=$(sql "SELECT COUNT(*) FROM reservations r JOIN reservations b
+        ON b.chambre_id = r.chambre_id AND b.id > r.id AND r.date_arrivee <= b.date_depart AND b.date_arrivee <= r.date_depart
+        AND b.statut NOT IN ('ANNULEE', 'TERMINEE', 'NO_SHOW')
+        JOIN chambres c ON c.id = r.chambre_id WHERE ${filtre}")
+    local nuits=$(sql "SELECT COALESCE(SUM(DATEDIFF(r.date_depart, r.date_arrivee) + 1), 0)
+        FROM reservations r JOIN chambres c ON c.id = r.chambre_id WHERE ${filtre}")
+    local occupations=$(sql "SELECT COUNT(*) FROM occupations_chambre o JOIN chambres c ON c.id = o.chambre_id
+        WHERE c.numero LIKE '${prefixe}%'")
+
+    if [ "$chevauchements" = "0" ] && [ "$en_base" = "$acceptees" ] && [ "$nuits" = "$occupations" ]; then
+        echo -e "${GREEN}✅ ${mode} réservations : ${acceptees}/${tentatives} acceptées, aucun chevauchement, ${occupations} nuits occupées une seule fois${NC}" >> "$COHERENCE"
+    else
+        echo -e "${RED}❌ ${mode} réservations : ${acceptees} acceptées (HTTP) / ${en_base} en base, ${chevauchements} chevauchements, ${nuits} nuits réservées / ${occupations} occupations${NC}" >> "$COHERENCE"
+    fi
+}
+
+sql() {
+    docker exec $CONTENEUR mysql -uroot -ploadtest -N -s mgh_loadtest -e "$1" 2> /dev/null
+}
+
+# Requêtes reçues par MySQL (la lecture du compteur compte elle-même pour une)
+questions() {
+    docker exec $CONTENEUR mysql -uroot -ploadtest -N -s -e "SHOW GLOBAL STATUS LIKE 'Questions'" 2> /dev/null \
+        | awk '{print $2}'
+}
+
+allers_retours() {
+    local libelle=$1
+    local lignes_commande=$(for i in $(seq 1 20); do
+        echo "{\"produitId\":${PRODUIT},\"quantite\":1,\"prixUnitaire\":5000}"; done | paste -sd,)
+    local lignes_facture=$(for i in $(seq 1 30); do
+        echo "{\"designation\":\"Prestation $i\",\"quantite\":1,\"prixUnitaire\":1000}"; done | paste -sd,)
+    local emission=$(date +%Y-%m-%d)
+    local echeance=$(date -d "$emission + 30 days" +%Y-%m-%d)
+    local avant apres
+
+    avant=$(questions)
+    api POST /api/commandes-restaurant \
+        "{\"nomClientExterne\":\"Lots\",\"numeroTable\":\"T2\",\"lignes\":[${lignes_commande}]}" > /dev/null
+    apres=$(questions)
+    printf "%-28s %-28s %8s\n" "$libelle" "Commande (20 lignes)" "$((apres - avant - 1))" >> "$ALLERS_RETOURS"
+
+    avant=$(questions)
+    api POST /api/factures \
+        "{\"dateEmission\":\"${emission}\",\"dateEcheance\":\"${echeance}\",\"montantHT\":30000,\"tauxTVA\":18,\"lignes\":[${lignes_facture}]}" \
+        > /dev/null
+    apres=$(questions)
+    printf "%-28s %-28s %8s\n" "$libelle" "Facture (30 lignes)" "$((apres - avant - 1))" >> "$ALLERS_RETOURS"
+}
+
+campagne() {
+    local virtuels=$1
+    local mode=$([ "$virtuels" = "true" ] && echo "virtuels" || echo "plateforme")
+    echo -e "${YELLOW}🚀 Mode ${mode} (durée ${DUREE}, concurrence ${CONCURRENCE})...${NC}"
+    demarrer_app $virtuels
+    if [ -z "$PRODUIT" ]; then
+        initialiser_donnees
+    else
+        connexion
+    fi
+
+    # Chauffe (JIT, pool de connexions, caches)
+    hey -z 10s -c 20 -H "Authorization: Bearer ${TOKEN}" "${BASE_URL}/api/reservations?taille=50" > /dev/null
+
+    filtre_jwt $mode
+    mesurer $mode "GET réservations (page)" GET "/api/reservations?taille=50"
+    mesurer $mode "GET réservations (vue liste)" GET "/api/reservations/liste?taille=50"
+    mesurer $mode "GET commandes restaurant" GET "/api/commandes-restaurant?taille=50"
+    mesurer $mode "GET recherche réservations" GET "/api/reservations/search?keyword=C12&taille=20"
+    mesurer $mode "GET recherche clients" GET "/api/clients/search?keyword=0700&taille=20"
+    mesurer $mode "GET recherche transactions" GET "/api/transactions/search?type=REVENU&statut=VALIDEE&taille=50"
+    mesurer $mode "POST commande restaurant" POST "/api/commandes-restaurant" \
+        "{\"nomClientExterne\":\"Charge\",\"numeroTable\":\"T1\",\"montantTotal\":5000,\"lignes\":[{\"produitId\":${PRODUIT},\"quantite\":1,\"prixUnitaire\":5000}]}"
+    menu $mode
+    contention $mode
+    double_reservation $mode
+    [ "$virtuels" = "false" ] && allers_retours "Lots JDBC"
+    arreter_app
+}
+
+PRODUIT=""
+campagne false
+campagne true
+
+echo -e "${YELLOW}🔁 Comparaison sans lots JDBC...${NC}"
+demarrer_app false false
+connexion
+allers_retours "Sans lots (1 requête/ligne)"
+arreter_app
+
+echo ""
+echo -e "${GREEN}📊 Résultats${NC}"
+printf "%-10s %-32s %10s %10s %8s\n" "Mode" "Endpoint" "Req/s" "p99 (ms)" "Erreurs"
+cat "$RESULTATS"
+echo ""
+echo -e "${GREEN}🔒 Cohérence sous contention (stock, réservations)${NC}"
+cat "$COHERENCE"
+echo ""
+echo -e "${GREEN}🔁 Allers-retours SQL par création${NC}"
+printf "%-28s %-28s %8s\n" "Mode" "Création" "Requêtes"
+cat "$ALLERS_RETOURS"